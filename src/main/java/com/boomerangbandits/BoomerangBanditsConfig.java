@@ -4,6 +4,7 @@ import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.ConfigSection;
+import net.runelite.client.config.Range;
 
 @ConfigGroup(BoomerangBanditsConfig.GROUP)
 public interface BoomerangBanditsConfig extends Config {
@@ -58,6 +59,37 @@ public interface BoomerangBanditsConfig extends Config {
     )
     default boolean cofferDepositSound() { return true; }
 
+    // ======================================================================
+    // BOUNTY SETTINGS
+    // ======================================================================
+
+    @ConfigSection(
+        name = "Bounties",
+        description = "Bounty completion settings",
+        position = 2
+    )
+    String bountiesSection = "bounties";
+
+    @ConfigItem(
+        keyName = "armedScreenshots",
+        name = "Pre-armed Screenshots",
+        description = "While a bounty NPC is near, keep a copy of the latest frame so a completion is captured "
+            + "from the exact tick. Private messages are blacked out. Uses extra memory and CPU.",
+        section = bountiesSection,
+        position = 0
+    )
+    default boolean armedScreenshots() { return false; }
+
+    @Range(min = 4, max = 128)
+    @ConfigItem(
+        keyName = "armedScreenshotMemoryMb",
+        name = "Pre-armed Memory (MB)",
+        description = "Memory for the two kept frames; larger frames are downscaled to fit",
+        section = bountiesSection,
+        position = 1
+    )
+    default int armedScreenshotMemoryMb() { return 24; }
+
     // ======================================================================
     // EVENT OVERLAY (Phase 6)
     // ======================================================================
@@ -1,6 +1,7 @@
 package com.boomerangbandits;
 
 import com.boomerangbandits.api.AuthHeaderInterceptor;
+import com.boomerangbandits.api.RateLimitInterceptor;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
@@ -14,21 +15,26 @@ import javax.inject.Named;
  * Guice module for the Boomerang Bandits plugin.
  * <p>
  * Provides a plugin-scoped {@link OkHttpClient} that wraps RuneLite's shared
- * client with {@link AuthHeaderInterceptor}. All plugin services should inject
- * {@code @Named("boomerang") OkHttpClient} so auth headers are added automatically.
+ * client with {@link RateLimitInterceptor} and {@link AuthHeaderInterceptor}. All
+ * plugin services should inject {@code @Named("boomerang") OkHttpClient} so backend
+ * calls are rate-limited and carry auth headers automatically.
  */
 public class BoomerangBanditsModule extends AbstractModule {
 
     @Override
     protected void configure() {
         bind(AuthHeaderInterceptor.class).in(Singleton.class);
+        bind(RateLimitInterceptor.class).in(Singleton.class);
     }
 
     @Provides
     @Singleton
     @Named("boomerang")
-    OkHttpClient provideBoomerangHttpClient(OkHttpClient base, AuthHeaderInterceptor interceptor) {
+    OkHttpClient provideBoomerangHttpClient(OkHttpClient base,
+                                            RateLimitInterceptor rateLimiter,
+                                            AuthHeaderInterceptor interceptor) {
         return base.newBuilder()
+                .addInterceptor(rateLimiter)
                 .addInterceptor(interceptor)
                 .build();
     }
@@ -46,4 +52,19 @@ public class BoomerangBanditsModule extends AbstractModule {
                 .cache(new Cache(cacheDir, 2L * 1024L * 1024L))
                 .build();
     }
+
+    /**
+     * Directory for small plugin-owned state files (crash journals, sync digests).
+     * Lives next to the HTTP cache under ~/.runelite.
+     */
+    @Provides
+    @Singleton
+    @Named("boomerangDataDir")
+    File provideBoomerangDataDir() {
+        File dataDir = new File(new File(System.getProperty("user.home"), ".runelite"), "boomerang-bandits");
+        if (!dataDir.exists()) {
+            dataDir.mkdirs();
+        }
+        return dataDir;
+    }
 }
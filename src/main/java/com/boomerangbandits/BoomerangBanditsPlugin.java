@@ -2,19 +2,27 @@ package com.boomerangbandits;
 
 import com.boomerangbandits.api.*;
 import com.boomerangbandits.api.models.NameChangeEntry;
-import com.boomerangbandits.api.WomApiService.SyncMember;
-import com.boomerangbandits.eastereggs.ItemRenameManager;
-import com.boomerangbandits.eastereggs.NPCRenameManager;
+import com.boomerangbandits.api.models.PluginConfigResponse;
+import com.boomerangbandits.eastereggs.MenuRenameEngine;
 import com.boomerangbandits.services.BountyManager;
+import com.boomerangbandits.services.ChatClassificationService;
+import com.boomerangbandits.services.ClanPresenceIndex;
+import com.boomerangbandits.services.ClanRosterService;
 import com.boomerangbandits.services.CompetitionScheduler;
 import com.boomerangbandits.services.ConfigSyncService;
 import com.boomerangbandits.services.EventAttendanceTracker;
+import com.boomerangbandits.services.FeatureFlagService;
 import com.boomerangbandits.services.InGameAnnouncementService;
+import com.boomerangbandits.services.PlayerEventBatcher;
+import com.boomerangbandits.services.WomGroupSyncService;
 import com.boomerangbandits.ui.BoomerangPanel;
 import com.boomerangbandits.ui.EventOverlay;
 import com.boomerangbandits.util.ClanValidator;
+import com.boomerangbandits.util.ClientThreadTaskRunner;
 import com.boomerangbandits.util.GameModeGuard;
 import com.boomerangbandits.util.PopupNotificationService;
+import com.boomerangbandits.util.ScreenshotService;
+import com.boomerangbandits.util.SlicedTask;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import com.google.inject.Binder;
@@ -23,7 +31,6 @@ import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.Nameable;
-import net.runelite.api.clan.ClanSettings;
 import net.runelite.api.events.*;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
@@ -51,7 +58,7 @@ import java.util.*;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @PluginDescriptor(
         name = "Boomerang Bandits",
@@ -83,6 +90,10 @@ public class BoomerangBanditsPlugin extends Plugin {
     @Inject
     private AuthHeaderInterceptor authInterceptor;
     @Inject
+    private RateLimitInterceptor rateLimitInterceptor;
+    private final Consumer<PluginConfigResponse> rateLimitConfigListener =
+            remoteConfig -> rateLimitInterceptor.configure(remoteConfig.getRateLimits());
+    @Inject
     private ClanApiService clanApi;
     @Inject
     private ClanContentService contentService;
@@ -102,26 +113,47 @@ public class BoomerangBanditsPlugin extends Plugin {
     // Clan Rank Sync
     @Inject
     private com.boomerangbandits.services.ClanRankSyncService clanRankSyncService;
+    @Inject
+    private ClanRosterService clanRosterService;
+    @Inject
+    private WomGroupSyncService womGroupSyncService;
+    @Inject
+    private ClientThreadTaskRunner taskRunner;
 
     // Attendance tracking
     @Inject
     private EventAttendanceTracker attendanceTracker;
+    @Inject
+    private ClanPresenceIndex presenceIndex;
+    @Inject
+    private PlayerEventBatcher playerEventBatcher;
+    private final PlayerEventBatcher.Subscriber presenceBatchSubscriber = (spawned, despawned) ->
+            presenceIndex.onPlayersChanged(spawned, despawned);
+    private final PlayerEventBatcher.Subscriber attendanceBatchSubscriber = (spawned, despawned) -> {
+        if (gameModeGuard.isStandardWorld()) {
+            attendanceTracker.onPlayersChanged(spawned, despawned);
+        }
+    };
 
     // Sound effects
     @Inject
     private com.boomerangbandits.services.CofferDepositSoundService cofferDepositSoundService;
     @Inject
-    private InGameAnnouncementService inGameAnnouncementService;
+    private FeatureFlagService featureFlagService;
     @Inject
-    private ItemRenameManager itemRenameManager;
+    private ChatClassificationService chatClassificationService;
+    @Inject
+    private InGameAnnouncementService inGameAnnouncementService;
     @Inject
-    private NPCRenameManager npcRenameManager;
+    private MenuRenameEngine menuRenameEngine;
     @Inject
     private BountyManager bountyManager;
     @Inject
     private PopupNotificationService popupNotificationService;
     @Inject
     private GameModeGuard gameModeGuard;
+    @Inject
+    private ScreenshotService screenshotService;
 
     // Phase 6: Overlay
     @Inject
@@ -184,11 +216,18 @@ public class BoomerangBanditsPlugin extends Plugin {
         // Wire group sync callback into admin panel
         panel.getAdminPanel().setOnGroupSync(this::triggerGroupSync);
         // Wire attendance tracker into admin panel
-        panel.getAdminPanel().setAttendanceTracker(attendanceTracker, adminApi);
+        panel.getAdminPanel().setAttendanceTracker(attendanceTracker, adminApi, clientThread);
 
         // Register Phase 6 overlay
         overlayManager.add(eventOverlay);
 
+        // Classify the current world in case we were enabled while logged in
+        gameModeGuard.refresh();
+
+        // Per-tick player batches: index first so the tracker sees up-to-date presence
+        playerEventBatcher.subscribe(presenceBatchSubscriber);
+        playerEventBatcher.subscribe(attendanceBatchSubscriber);
+
         // Register notifiers
         registerNotifiers();
 
@@ -198,6 +237,9 @@ public class BoomerangBanditsPlugin extends Plugin {
     @Override
     protected void shutDown() {
         unregisterNotifiers();
+        playerEventBatcher.unsubscribe(presenceBatchSubscriber);
+        playerEventBatcher.unsubscribe(attendanceBatchSubscriber);
+        attendanceTracker.shutDown();
         competitionScheduler.stop();
         clanRankSyncService.stop();
         overlayManager.remove(eventOverlay);
@@ -215,6 +257,7 @@ public class BoomerangBanditsPlugin extends Plugin {
     @Subscribe
     public void onGameStateChanged(GameStateChanged event) {
         try {
+            gameModeGuard.refresh();
             switch (event.getGameState()) {
                 case LOGGED_IN:
                     // Guard: don't re-auth on world hop or reconnect
@@ -235,6 +278,8 @@ public class BoomerangBanditsPlugin extends Plugin {
 
                 case LOGIN_SCREEN:
                 case HOPPING:
+                    playerEventBatcher.clear();
+                    presenceIndex.clearPlayers();
                     attendanceTracker.onHoppingOrLogin();
                     if (authenticated) {
                         handleLogout();
@@ -257,6 +302,8 @@ public class BoomerangBanditsPlugin extends Plugin {
     @Subscribe
     public void onClanChannelChanged(ClanChannelChanged event) {
         try {
+            presenceIndex.onClanChannelChanged(event.getClanChannel(), event.isGuest());
+
             if (client.getGameState() == GameState.LOGGED_IN && !authenticated) {
                 // Reset validator so a previous failed attempt doesn't block us
                 clanValidator.reset();
@@ -291,6 +338,8 @@ public class BoomerangBanditsPlugin extends Plugin {
                 return;
             }
 
+            featureFlagService.refresh();
+
             // If the member code was just entered/changed while logged in, re-attempt auth immediately
             // so the player doesn't have to relog.
             if (event.getKey().equals("memberCode")
@@ -378,45 +427,52 @@ public class BoomerangBanditsPlugin extends Plugin {
     // ATTENDANCE TRACKING — forward to EventAttendanceTracker
     // ======================================================================
 
+    @Subscribe
+    public void onWorldChanged(WorldChanged event) {
+        gameModeGuard.refresh();
+    }
+
     @Subscribe
     public void onGameTick(GameTick event) {
+        // Spawns/despawns from this tick's packets arrive before GameTick
+        playerEventBatcher.flush();
         if (!gameModeGuard.isStandardWorld()) {
             return;
         }
         attendanceTracker.onGameTick();
+        clanRosterService.onGameTick();
         popupNotificationService.processQueue();
+        screenshotService.onGameTick(bountyManager.isHuntingBounty());
     }
 
     @Subscribe
     public void onPlayerSpawned(PlayerSpawned event) {
-        if (!gameModeGuard.isStandardWorld()) {
-            return;
-        }
-        attendanceTracker.onPlayerSpawned(event.getPlayer());
+        playerEventBatcher.onPlayerSpawned(event.getPlayer());
     }
 
     @Subscribe
     public void onPlayerDespawned(PlayerDespawned event) {
-        if (!gameModeGuard.isStandardWorld()) {
-            return;
-        }
-        attendanceTracker.onPlayerDespawned(event.getPlayer());
+        playerEventBatcher.onPlayerDespawned(event.getPlayer());
     }
 
     @Subscribe
     public void onClanMemberJoined(ClanMemberJoined event) {
+        presenceIndex.onClanMemberJoined(event.getClanChannel(), event.getClanMember());
         if (!gameModeGuard.isStandardWorld()) {
             return;
         }
         attendanceTracker.onClanMemberJoined(event.getClanMember());
+        clanRosterService.markChanged();
     }
 
     @Subscribe
     public void onClanMemberLeft(ClanMemberLeft event) {
+        presenceIndex.onClanMemberLeft(event.getClanChannel(), event.getClanMember());
         if (!gameModeGuard.isStandardWorld()) {
             return;
         }
         attendanceTracker.onClanMemberLeft(event.getClanMember());
+        clanRosterService.markChanged();
     }
 
     // ======================================================================
@@ -430,6 +486,13 @@ public class BoomerangBanditsPlugin extends Plugin {
         // Reset validation state on login
         clanValidator.reset();
 
+        // Offer any attendance event left unfinished by a crash
+        if (attendanceTracker.recoverFromJournal()) {
+            int members = attendanceTracker.getMemberCount();
+            int seconds = attendanceTracker.getEventDurationSeconds();
+            SwingUtilities.invokeLater(() -> panel.getAdminPanel().offerRecoveredEvent(members, seconds));
+        }
+
         // Wait a moment for clan channel to load, then try authentication on the client thread
         executor.schedule(
                 () -> clientThread.invoke(this::attemptAuthentication),
@@ -479,6 +542,7 @@ public class BoomerangBanditsPlugin extends Plugin {
         nameChangesSubmitted = false;
         inGameAnnouncementService.reset();
         bountyManager.reset();
+        clanRosterService.reset();
         clanValidator.reset(); // Reset clan validation cache
         SwingUtilities.invokeLater(() -> {
             panel.getHomePanel().updateBountySection(null);
@@ -648,47 +712,11 @@ public class BoomerangBanditsPlugin extends Plugin {
     }
 
     /**
-     * Build SyncMember list from ClanSettings and call syncGroupMembers.
-     * MUST be called on the client thread (uses ClanSettings).
-     * Dispatches the HTTP call off-thread via executor.
+     * Sync the clan roster to the backend's WOM group; only changes since the last
+     * acknowledged sync are sent (see {@link WomGroupSyncService}).
      */
     public void triggerGroupSync() {
-        clientThread.invoke(() -> {
-            ClanSettings clanSettings = client.getClanSettings();
-            if (clanSettings == null) {
-                log.warn("[WOM] Cannot sync — clan settings not loaded");
-                return;
-            }
-
-            java.util.List<net.runelite.api.clan.ClanMember> allMembers = clanSettings.getMembers();
-            ArrayList<SyncMember> syncMembers = new ArrayList<>(allMembers.size());
-
-            for (net.runelite.api.clan.ClanMember member : allMembers) {
-                String rsn = member.getName();
-                if (rsn.startsWith("[#")) continue; // skip bots
-
-                String normalizedRsn = Text.toJagexName(rsn);
-                net.runelite.api.clan.ClanTitle title = clanSettings.titleForRank(member.getRank());
-                String role = title != null && title.getName() != null
-                        ? title.getName().toLowerCase()
-                        : "member";
-
-                syncMembers.add(new SyncMember(normalizedRsn, role, "normal", null));
-            }
-
-            log.info("[WOM] Syncing {} clan members to backend (add_only)", syncMembers.size());
-
-            womApi.syncGroupMembers(11575, "add_only", syncMembers,
-                    result -> {
-                        if (result.getData() != null) {
-                            log.info("[WOM] Group sync done — added:{} updated:{} unchanged:{} invalid:{}",
-                                    result.getData().getAdded(), result.getData().getUpdated(),
-                                    result.getData().getUnchanged(), result.getData().getInvalid());
-                        }
-                    },
-                    error -> log.error("[WOM] Group sync failed: {}", error.getMessage())
-            );
-        });
+        womGroupSyncService.sync();
     }
 
     // ======================================================================
@@ -745,7 +773,7 @@ public class BoomerangBanditsPlugin extends Plugin {
             return;
         }
 
-        // Validate queue entries against current friends/ignore list
+        // Validate queue entries against current friends/ignore list, a slice per client frame
         List<Nameable> friendIgnore = new ArrayList<>();
         Nameable[] friends = client.getFriendContainer().getMembers();
         Nameable[] ignored = client.getIgnoreContainer().getMembers();
@@ -756,11 +784,19 @@ public class BoomerangBanditsPlugin extends Plugin {
             friendIgnore.addAll(Arrays.asList(ignored));
         }
 
-        List<NameChangeEntry> validChanges = friendIgnore.stream()
-                .filter(n -> isValidNameChange(n.getPrevName(), n.getName()))
-                .map(n -> new NameChangeEntry(Text.toJagexName(n.getPrevName()), Text.toJagexName(n.getName())))
-                .collect(Collectors.toList());
+        Set<NameChangeEntry> validChanges = new HashSet<>();
+        taskRunner.submit(SlicedTask.forEach(friendIgnore, n -> {
+            if (isValidNameChange(n.getPrevName(), n.getName())) {
+                validChanges.add(new NameChangeEntry(Text.toJagexName(n.getPrevName()), Text.toJagexName(n.getName())));
+            }
+        }, () -> validChanges)).thenAccept(this::submitValidNameChanges);
+    }
 
+    /**
+     * Drops queued changes no longer backed by the friends/ignore list and submits the rest.
+     * Runs on the client thread once validation has finished.
+     */
+    private void submitValidNameChanges(Set<NameChangeEntry> validChanges) {
         // Remove stale entries no longer in friends/ignore list
         nameChangeQueue.removeIf(entry -> {
             if (!validChanges.contains(entry)) {
@@ -791,17 +827,24 @@ public class BoomerangBanditsPlugin extends Plugin {
     // ======================================================================
 
     private void registerNotifiers() {
+        configSyncService.addConfigListener(rateLimitConfigListener);
+        featureFlagService.startUp();
+        eventBus.register(chatClassificationService);
+        cofferDepositSoundService.preload();
         eventBus.register(cofferDepositSoundService);
-        itemRenameManager.startUp();
-        npcRenameManager.startUp();
+        menuRenameEngine.startUp();
+        screenshotService.startUp();
         bountyManager.startUp();
     }
 
     private void unregisterNotifiers() {
+        eventBus.unregister(chatClassificationService);
         eventBus.unregister(cofferDepositSoundService);
-        itemRenameManager.shutDown();
-        npcRenameManager.shutDown();
+        menuRenameEngine.shutDown();
+        featureFlagService.shutDown();
         bountyManager.shutDown();
+        screenshotService.shutDown();
+        configSyncService.removeConfigListener(rateLimitConfigListener);
     }
 
     // ======================================================================
@@ -0,0 +1,187 @@
+package com.boomerangbandits.api;
+
+import com.boomerangbandits.api.models.PluginConfigResponse.RateLimit;
+import com.boomerangbandits.util.RefreshThrottler;
+import com.boomerangbandits.util.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OkHttp interceptor that rate-limits requests to the Boomerang Bandits backend on
+ * the client side, so a reconnect storm or a burst of syncs cannot hammer the API.
+ * <p>
+ * Requests are grouped into endpoint families by the first path segment after
+ * {@link ApiConstants#BACKEND_BASE_URL} ("members", "wom", "admin", ...), each with
+ * its own lock-free {@link TokenBucket}. A request that finds its bucket empty waits
+ * for a token if one is due within the family's {@code maxDelayMs}; otherwise it is
+ * answered locally with a synthetic HTTP 429 and never reaches the network. Callers
+ * already treat a 429 like any other failed response.
+ * <p>
+ * Limits come from the remote plugin config ({@link #configure}); until then every
+ * family uses the {@link RateLimit} defaults. Allowed, delayed and rejected counts are
+ * kept per family ({@link #getStats()}) and summarised in the log at most once a minute
+ * while limiting is active.
+ */
+@Slf4j
+@Singleton
+public class RateLimitInterceptor implements Interceptor {
+
+    private static final String DEFAULT_FAMILY = "default";
+    private static final long STATS_LOG_INTERVAL_MS = 60_000;
+    // Marks locally generated 429s, so they can be told apart from backend ones
+    private static final String CLIENT_LIMIT_HEADER = "X-Client-Rate-Limited";
+
+    private volatile Map<String, RateLimit> limits = Collections.emptyMap();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, FamilyStats> stats = new ConcurrentHashMap<>();
+    private final RefreshThrottler statsLog = new RefreshThrottler(STATS_LOG_INTERVAL_MS);
+
+    /**
+     * Apply limits from the remote config. Buckets are only rebuilt when the limits
+     * actually change, so a periodic config sync does not refill them.
+     *
+     * @param newLimits family -> limit, or null for the defaults
+     */
+    public void configure(@Nullable Map<String, RateLimit> newLimits) {
+        Map<String, RateLimit> resolved = newLimits != null ? newLimits : Collections.emptyMap();
+        if (resolved.equals(limits)) {
+            return;
+        }
+        limits = new ConcurrentHashMap<>(resolved);
+        buckets.clear();
+        log.debug("[RateLimit] Limits updated: {}", resolved);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String family = familyOf(request.url().toString());
+        if (family == null) {
+            return chain.proceed(request);
+        }
+
+        RateLimit limit = limitFor(family);
+        TokenBucket bucket = buckets.computeIfAbsent(family, f -> newBucket(limit));
+        FamilyStats familyStats = stats.computeIfAbsent(family, f -> new FamilyStats());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, limit.getMaxDelayMs()));
+        boolean delayed = false;
+        while (!bucket.tryAcquire()) {
+            long wait = Math.max(bucket.getNanosUntilAvailable(), TimeUnit.MILLISECONDS.toNanos(1));
+            if (System.nanoTime() + wait > deadline) {
+                familyStats.rejected.incrementAndGet();
+                logStats();
+                return rejected(request, wait);
+            }
+            delayed = true;
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for rate limit");
+            }
+        }
+
+        if (delayed) {
+            familyStats.delayed.incrementAndGet();
+            logStats();
+        } else {
+            familyStats.allowed.incrementAndGet();
+        }
+        return chain.proceed(request);
+    }
+
+    /**
+     * Per-family counters since startup: family -> [allowed, delayed, rejected].
+     */
+    public Map<String, long[]> getStats() {
+        Map<String, long[]> snapshot = new TreeMap<>();
+        stats.forEach((family, s) ->
+                snapshot.put(family, new long[]{s.allowed.get(), s.delayed.get(), s.rejected.get()}));
+        return snapshot;
+    }
+
+    /**
+     * The endpoint family for a backend URL, or null for requests elsewhere (WOM API, CDN).
+     */
+    @Nullable
+    static String familyOf(String url) {
+        if (!url.startsWith(ApiConstants.BACKEND_BASE_URL)) {
+            return null;
+        }
+        int start = ApiConstants.BACKEND_BASE_URL.length();
+        while (start < url.length() && url.charAt(start) == '/') {
+            start++;
+        }
+        int end = start;
+        while (end < url.length() && url.charAt(end) != '/' && url.charAt(end) != '?') {
+            end++;
+        }
+        return end > start ? url.substring(start, end) : DEFAULT_FAMILY;
+    }
+
+    private RateLimit limitFor(String family) {
+        Map<String, RateLimit> current = limits;
+        RateLimit limit = current.get(family);
+        if (limit == null) {
+            limit = current.get(DEFAULT_FAMILY);
+        }
+        return limit != null ? limit : new RateLimit();
+    }
+
+    private static TokenBucket newBucket(RateLimit limit) {
+        return new TokenBucket(Math.max(1, limit.getRequests()), Math.max(1, limit.getPerSeconds()), TimeUnit.SECONDS);
+    }
+
+    private static Response rejected(Request request, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(429)
+                .message("Client rate limit exceeded")
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .header(CLIENT_LIMIT_HEADER, "true")
+                .body(ResponseBody.create(MediaType.get("text/plain; charset=utf-8"), "Client rate limit exceeded"))
+                .build();
+    }
+
+    private void logStats() {
+        if (!statsLog.shouldRefresh()) {
+            return;
+        }
+        statsLog.recordRefresh();
+
+        StringBuilder summary = new StringBuilder();
+        getStats().forEach((family, counts) -> {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(family).append(" ")
+                    .append(counts[0]).append("/").append(counts[1]).append("/").append(counts[2]);
+        });
+        log.info("[RateLimit] allowed/delayed/rejected per family: {}", summary);
+    }
+
+    private static final class FamilyStats {
+        private final AtomicLong allowed = new AtomicLong();
+        private final AtomicLong delayed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+    }
+}
@@ -12,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -219,13 +220,31 @@ public class WomApiService {
                                  @Nonnull List<SyncMember> members,
                                  @Nonnull Consumer<GroupSyncResponse> onSuccess,
                                  @Nonnull Consumer<Exception> onError) {
+        syncGroupMembers(groupId, mode, null, members, onSuccess, onError);
+    }
+
+    /**
+     * POST /api/wom/groups/{groupId}/sync with a base version.
+     * <p>
+     * mode="delta" upserts listed members like add_only, but only if the backend's
+     * group roster is still at {@code baseVersion}; otherwise the backend answers
+     * HTTP 409, reported as {@link GroupVersionConflictException}, and the caller
+     * should resend the full roster.
+     *
+     * @param baseVersion roster version from the last acknowledged sync, or null
+     */
+    public void syncGroupMembers(int groupId, @Nonnull String mode,
+                                 @Nullable Long baseVersion,
+                                 @Nonnull List<SyncMember> members,
+                                 @Nonnull Consumer<GroupSyncResponse> onSuccess,
+                                 @Nonnull Consumer<Exception> onError) {
         String memberCode = config.memberCode();
         if (memberCode == null || memberCode.isEmpty()) {
             onError.accept(new IllegalStateException("Not authenticated"));
             return;
         }
 
-        String json = gson.toJson(new GroupSyncRequest(mode, members));
+        String json = gson.toJson(new GroupSyncRequest(mode, baseVersion, members));
 
         Request request = new Request.Builder()
                 .url(ApiConstants.BACKEND_BASE_URL + "/wom/groups/" + groupId + "/sync")
@@ -248,6 +267,8 @@ public class WomApiService {
                         String body = response.body() != null ? response.body().string() : "";
                         if (response.code() == 403) {
                             onError.accept(new SecurityException("Insufficient rank to sync group members"));
+                        } else if (response.code() == 409 && baseVersion != null) {
+                            onError.accept(new GroupVersionConflictException(baseVersion));
                         } else if (response.code() == 404) {
                             onError.accept(new IllegalArgumentException("Group ID " + groupId + " not found on backend"));
                         } else {
@@ -363,14 +384,26 @@ public class WomApiService {
      */
     public static class GroupSyncRequest {
         private final String mode;
+        // Omitted (null) except in delta mode
+        private final Long baseVersion;
         private final List<SyncMember> members;
 
-        public GroupSyncRequest(String mode, List<SyncMember> members) {
+        public GroupSyncRequest(String mode, Long baseVersion, List<SyncMember> members) {
             this.mode = mode;
+            this.baseVersion = baseVersion;
             this.members = members;
         }
     }
 
+    /**
+     * The backend's group roster is no longer at the delta sync's base version.
+     */
+    public static class GroupVersionConflictException extends IOException {
+        public GroupVersionConflictException(long baseVersion) {
+            super("Group roster is no longer at version " + baseVersion);
+        }
+    }
+
     /**
      * A single member entry in a group sync request
      */
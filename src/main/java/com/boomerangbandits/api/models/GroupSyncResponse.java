@@ -23,6 +23,11 @@ public class GroupSyncResponse {
         private int deactivated;
         private int invalid;
         private List<SyncError> errors;
+        /**
+         * Group roster version after this sync; the base for the next delta sync.
+         * Null from backends without delta support.
+         */
+        private Long version;
 
     }
 
@@ -57,6 +57,18 @@ public class PluginConfigResponse {
      */
     private Map<String, String> npcRenames;
 
+    /**
+     * Ceilings for bounty screenshot encoding. Missing fields keep the plugin defaults.
+     */
+    private ScreenshotLimits screenshotLimits;
+
+    /**
+     * Client-side request limits per endpoint family: the first path segment of the
+     * backend URL ("members", "wom", "admin", ...). The "default" entry applies to
+     * families not listed. Null keeps the plugin defaults.
+     */
+    private Map<String, RateLimit> rateLimits;
+
     /**
      * Outer wrapper matching the actual API response shape: {"success": true, "config": {...}}
      */
@@ -66,6 +78,41 @@ public class PluginConfigResponse {
         private PluginConfigResponse config;
     }
 
+    /**
+     * Screenshot encoding ceilings. The encoder picks the highest quality and width
+     * within these that fits {@code maxBytes}; {@code maxBytes <= 0} encodes at
+     * {@code maxQuality} and {@code maxWidth} without a size target.
+     */
+    @Data
+    public static class ScreenshotLimits {
+        // No size budget unless the server sets one: the fixed quality/width path stays the default
+        private int maxBytes = 0;
+        private int maxWidth = 1600;
+        private float maxQuality = 0.92f;
+        private float minQuality = 0.5f;
+        /**
+         * Smallest fraction of maxWidth the encoder may shrink to before giving up on the budget.
+         */
+        private float minScale = 0.5f;
+        /**
+         * Crop to the union of these regions before scaling: "viewport", "chatbox",
+         * "notification". Null or empty captures the whole client frame.
+         */
+        private List<String> cropRegions;
+    }
+
+    /**
+     * Token bucket for one endpoint family: bursts of {@code requests}, refilled over
+     * {@code perSeconds}. A call that finds the bucket empty waits up to
+     * {@code maxDelayMs} for a token before it is rejected.
+     */
+    @Data
+    public static class RateLimit {
+        private int requests = 60;
+        private int perSeconds = 60;
+        private long maxDelayMs = 2_000;
+    }
+
     /**
      * Bounty definition from the manifest.
      */
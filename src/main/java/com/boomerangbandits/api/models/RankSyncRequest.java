@@ -21,6 +21,24 @@ public class RankSyncRequest {
     @SerializedName("createIfNotFound")
     private boolean createIfNotFound;
 
+    public static final String MODE_FULL = "full";
+    public static final String MODE_DELTA = "delta";
+
+    /**
+     * {@link #MODE_FULL}: updates hold the whole roster.
+     * {@link #MODE_DELTA}: updates hold only adds and rank changes, {@link #removed}
+     * the members who left, both relative to {@link #baseVersion}. The backend answers
+     * HTTP 409 if its roster is no longer at that version.
+     */
+    @SerializedName("mode")
+    private String mode = MODE_FULL;
+
+    @SerializedName("baseVersion")
+    private Long baseVersion;
+
+    @SerializedName("removed")
+    private List<String> removed;
+
     @Data
     public static class RankUpdate {
         @SerializedName("rsn")
@@ -3,6 +3,7 @@ package com.boomerangbandits.api.models;
 import com.google.gson.annotations.SerializedName;
 import lombok.Data;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,6 +35,48 @@ public class RankSyncResponse {
     @SerializedName("errors")
     private List<SyncError> errors;
 
+    /**
+     * Roster version after this sync; the base for the next delta sync.
+     * Null from backends without delta support.
+     */
+    @SerializedName("version")
+    private Long version;
+
+    /**
+     * Fold one batch's result into this aggregate. Counts are summed, lists concatenated
+     * and the highest version kept; error indices are shifted by {@code indexOffset} so
+     * they point into the whole roster rather than the batch.
+     */
+    public void add(RankSyncResponse batch, int indexOffset) {
+        success &= batch.success;
+        synced += batch.synced;
+        updated += batch.updated;
+        unchanged += batch.unchanged;
+        created += batch.created;
+        invalid += batch.invalid;
+
+        if (batch.notFound != null) {
+            if (notFound == null) {
+                notFound = new ArrayList<>();
+            }
+            notFound.addAll(batch.notFound);
+        }
+        if (batch.errors != null) {
+            if (errors == null) {
+                errors = new ArrayList<>();
+            }
+            for (SyncError error : batch.errors) {
+                if (error.getIndex() != null) {
+                    error.setIndex(error.getIndex() + indexOffset);
+                }
+                errors.add(error);
+            }
+        }
+        if (batch.version != null && (version == null || batch.version > version)) {
+            version = batch.version;
+        }
+    }
+
     /**
      * Individual sync error details.
      */
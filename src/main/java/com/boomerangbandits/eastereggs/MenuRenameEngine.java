@@ -0,0 +1,162 @@
+package com.boomerangbandits.eastereggs;
+
+import com.boomerangbandits.api.models.PluginConfigResponse;
+import com.boomerangbandits.services.ConfigSyncService;
+import com.boomerangbandits.services.FeatureFlagService;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.MenuAction;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.NPC;
+import net.runelite.api.events.MenuEntryAdded;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * Applies the server-configured item and NPC renames to menu entries.
+ * <p>
+ * MenuEntryAdded fires for every entry on every right-click and hover, so the hot
+ * path is kept flat: the entry's {@link MenuAction} is checked against precomputed
+ * ordinal bitsets, empty tables and the easter-egg flag short-circuit next, and the
+ * rename is then resolved by item/NPC id (learned once per id) or, where the entry
+ * carries no usable id, by a tag-skipping name lookup. Nothing is allocated unless
+ * a rename actually applies.
+ * <p>
+ * Tables are rebuilt whenever {@link ConfigSyncService} applies a new config.
+ */
+@Slf4j
+@Singleton
+public class MenuRenameEngine {
+
+    // Entries whose identifier is the ground item id
+    private static final BitSet GROUND_ITEM_ACTIONS = ordinals(
+            MenuAction.GROUND_ITEM_FIRST_OPTION,
+            MenuAction.GROUND_ITEM_SECOND_OPTION,
+            MenuAction.GROUND_ITEM_THIRD_OPTION,
+            MenuAction.GROUND_ITEM_FOURTH_OPTION,
+            MenuAction.GROUND_ITEM_FIFTH_OPTION,
+            MenuAction.EXAMINE_ITEM_GROUND
+    );
+    // Widget entries whose target is just the item name, so MenuEntry#getItemId can key the cache
+    private static final BitSet WIDGET_ITEM_ACTIONS = ordinals(
+            MenuAction.CC_OP,
+            MenuAction.CC_OP_LOW_PRIORITY,
+            MenuAction.WIDGET_TARGET
+    );
+    // "Use X -> Y" targets: no single id describes the target text, match by name only
+    private static final BitSet WIDGET_USE_ON_ACTIONS = ordinals(
+            MenuAction.WIDGET_TARGET_ON_PLAYER,
+            MenuAction.WIDGET_TARGET_ON_NPC,
+            MenuAction.WIDGET_TARGET_ON_GAME_OBJECT,
+            MenuAction.WIDGET_TARGET_ON_GROUND_ITEM,
+            MenuAction.WIDGET_TARGET_ON_WIDGET
+    );
+    private static final BitSet NPC_ACTIONS = ordinals(
+            MenuAction.NPC_FIRST_OPTION,
+            MenuAction.NPC_SECOND_OPTION,
+            MenuAction.NPC_THIRD_OPTION,
+            MenuAction.NPC_FOURTH_OPTION,
+            MenuAction.NPC_FIFTH_OPTION,
+            MenuAction.EXAMINE_NPC
+    );
+    private static final BitSet ALL_ACTIONS = union(GROUND_ITEM_ACTIONS, WIDGET_ITEM_ACTIONS,
+            WIDGET_USE_ON_ACTIONS, NPC_ACTIONS);
+
+    private final EventBus eventBus;
+    private final ConfigSyncService configSyncService;
+    private final FeatureFlagService featureFlagService;
+    private final Consumer<PluginConfigResponse> configListener = this::rebuild;
+
+    private volatile RenameTable itemRenames = RenameTable.EMPTY;
+    private volatile RenameTable npcRenames = RenameTable.EMPTY;
+
+    @Inject
+    public MenuRenameEngine(EventBus eventBus, ConfigSyncService configSyncService, FeatureFlagService featureFlagService) {
+        this.eventBus = eventBus;
+        this.configSyncService = configSyncService;
+        this.featureFlagService = featureFlagService;
+    }
+
+    @Subscribe
+    public void onMenuEntryAdded(MenuEntryAdded event) {
+        MenuEntry entry = event.getMenuEntry();
+        if (entry == null) {
+            return;
+        }
+
+        MenuAction type = entry.getType();
+        int action = type.ordinal();
+        if (!ALL_ACTIONS.get(action)) {
+            return;
+        }
+
+        boolean npc = NPC_ACTIONS.get(action);
+        RenameTable table = npc ? npcRenames : itemRenames;
+        if (table.isEmpty() || !featureFlagService.isEasterEggsEnabled()) {
+            return;
+        }
+
+        String target = entry.getTarget();
+        if (target == null || target.isEmpty()) {
+            return;
+        }
+
+        int id = -1;
+        if (npc) {
+            NPC actor = entry.getNpc();
+            id = actor != null ? actor.getId() : -1;
+        } else if (GROUND_ITEM_ACTIONS.get(action)) {
+            id = entry.getIdentifier();
+        } else if (WIDGET_ITEM_ACTIONS.get(action)) {
+            id = entry.getItemId();
+        }
+
+        RenameTable.Rename rename = id >= 0 ? table.findById(id, target) : table.findByName(target);
+        if (rename != null) {
+            entry.setTarget(target.replace(rename.from, rename.to));
+        }
+    }
+
+    public void startUp() {
+        configSyncService.addConfigListener(configListener);
+        rebuild(configSyncService.getLatestConfig());
+        eventBus.register(this);
+    }
+
+    public void shutDown() {
+        eventBus.unregister(this);
+        configSyncService.removeConfigListener(configListener);
+        itemRenames = RenameTable.EMPTY;
+        npcRenames = RenameTable.EMPTY;
+    }
+
+    private void rebuild(PluginConfigResponse config) {
+        itemRenames = config != null && config.getItemRenames() != null && !config.getItemRenames().isEmpty()
+                ? new RenameTable(config.getItemRenames())
+                : RenameTable.EMPTY;
+        npcRenames = config != null && config.getNpcRenames() != null && !config.getNpcRenames().isEmpty()
+                ? new RenameTable(config.getNpcRenames())
+                : RenameTable.EMPTY;
+        log.debug("Menu rename tables rebuilt");
+    }
+
+    private static BitSet ordinals(MenuAction... actions) {
+        BitSet set = new BitSet(MenuAction.values().length);
+        for (MenuAction action : actions) {
+            set.set(action.ordinal());
+        }
+        return set;
+    }
+
+    private static BitSet union(BitSet... sets) {
+        BitSet union = new BitSet();
+        for (BitSet set : sets) {
+            union.or(set);
+        }
+        return union;
+    }
+}
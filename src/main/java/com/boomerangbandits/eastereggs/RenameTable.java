@@ -0,0 +1,119 @@
+package com.boomerangbandits.eastereggs;
+
+import com.boomerangbandits.util.IntObjectMap;
+
+import java.util.Map;
+
+/**
+ * Name renames for one kind of menu target (items or NPCs), matched without allocating.
+ * <p>
+ * Names are indexed by {@link String#hashCode()} of the plain name. A menu target is
+ * hashed and compared while skipping its {@code <...>} tags, so no stripped copy is
+ * built. Results are also learned per item/NPC id, which turns repeat lookups into a
+ * single primitive map read.
+ * <p>
+ * The name index is immutable; the learned cache is only touched on the client thread.
+ */
+final class RenameTable {
+
+    static final RenameTable EMPTY = new RenameTable(null);
+
+    /**
+     * Cached "no rename for this id" marker.
+     */
+    private static final Rename NONE = new Rename("", "");
+
+    private final IntObjectMap<Rename> byNameHash;
+    private final IntObjectMap<Rename> learnedById = new IntObjectMap<>();
+
+    RenameTable(Map<String, String> renames) {
+        byNameHash = new IntObjectMap<>(renames != null ? renames.size() : 0);
+        if (renames == null) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : renames.entrySet()) {
+            String from = entry.getKey();
+            String to = entry.getValue();
+            if (from == null || from.isEmpty() || to == null) {
+                continue;
+            }
+            Rename rename = new Rename(from, to);
+            rename.nextSameHash = byNameHash.put(from.hashCode(), rename);
+        }
+    }
+
+    boolean isEmpty() {
+        return byNameHash.isEmpty();
+    }
+
+    /**
+     * Resolve by id, consulting the name index only the first time an id is seen.
+     *
+     * @return the rename, or null if none applies
+     */
+    Rename findById(int id, String target) {
+        Rename rename = learnedById.get(id);
+        if (rename == null) {
+            rename = findByName(target);
+            learnedById.put(id, rename != null ? rename : NONE);
+        }
+        return rename != NONE ? rename : null;
+    }
+
+    /**
+     * @return the rename whose name equals {@code target} with tags removed, or null
+     */
+    Rename findByName(String target) {
+        Rename rename = byNameHash.get(hashWithoutTags(target));
+        while (rename != null && !equalsWithoutTags(target, rename.from)) {
+            rename = rename.nextSameHash;
+        }
+        return rename;
+    }
+
+    private static int hashWithoutTags(String s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '<') {
+                int close = s.indexOf('>', i + 1);
+                if (close >= 0) {
+                    i = close;
+                    continue;
+                }
+            }
+            h = 31 * h + c;
+        }
+        return h;
+    }
+
+    private static boolean equalsWithoutTags(String tagged, String plain) {
+        int p = 0;
+        for (int i = 0; i < tagged.length(); i++) {
+            char c = tagged.charAt(i);
+            if (c == '<') {
+                int close = tagged.indexOf('>', i + 1);
+                if (close >= 0) {
+                    i = close;
+                    continue;
+                }
+            }
+            if (p >= plain.length() || plain.charAt(p++) != c) {
+                return false;
+            }
+        }
+        return p == plain.length();
+    }
+
+    static final class Rename {
+        final String from;
+        final String to;
+        // Chain of names sharing a hash code
+        Rename nextSameHash;
+
+        Rename(String from, String to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
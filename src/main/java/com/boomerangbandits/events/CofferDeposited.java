@@ -0,0 +1,13 @@
+package com.boomerangbandits.events;
+
+import lombok.Value;
+
+/**
+ * A clan member deposited coins into the clan coffer.
+ * Posted by {@link com.boomerangbandits.services.ChatClassificationService}.
+ */
+@Value
+public class CofferDeposited {
+    String depositor;
+    long amount;
+}
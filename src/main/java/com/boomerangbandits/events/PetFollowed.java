@@ -0,0 +1,16 @@
+package com.boomerangbandits.events;
+
+import lombok.Value;
+
+/**
+ * The local player received a pet ("You have a funny feeling like you're being followed"),
+ * or would have if they did not already own it.
+ * Posted by {@link com.boomerangbandits.services.ChatClassificationService}.
+ */
+@Value
+public class PetFollowed {
+    /**
+     * True for the duplicate-pet message ("...like you would have been followed").
+     */
+    boolean duplicate;
+}
@@ -0,0 +1,301 @@
+package com.boomerangbandits.services;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Crash-safe, memory-mapped journal of attendance transitions.
+ * <p>
+ * Every join/leave seen by {@link EventAttendanceTracker} is written as a fixed-size
+ * (memberId, elapsedTick, type) record straight into a mapped file. Writes are absolute
+ * {@code putInt} calls on the mapping, so the per-tick path does no heap allocation and
+ * no syscalls. The OS flushes dirty pages on its own schedule, which is enough to survive
+ * a RuneLite crash (only a full OS crash can lose the tail).
+ * <p>
+ * File layout:
+ * <pre>
+ * [header 64B][name table NAME_CAPACITY x 32B][records RECORD_CAPACITY x 12B]
+ * </pre>
+ * Ticks are stored relative to the event start so a recovered session can be
+ * rebased onto the new client's tick counter.
+ * <p>
+ * Must only be used from the client thread.
+ */
+@Slf4j
+@Singleton
+public class AttendanceJournal {
+
+    static final int JOIN = 1;
+    static final int LEAVE = 2;
+
+    static final int NAME_CAPACITY = 2048;
+    static final int RECORD_CAPACITY = 65536;
+
+    private static final String FILE_NAME = "attendance.journal";
+    private static final int MAGIC = 0x42424A31; // "BBJ1"
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_RUNNING = 1;
+    // Sessions whose last journaled tick is older than this are dropped, not offered
+    static final long MAX_RECOVERY_AGE_MS = 12 * 60 * 60 * 1000L;
+    private static final long TICK_MILLIS = 600;
+
+    // Header field offsets
+    private static final int OFF_MAGIC = 0;
+    private static final int OFF_STATE = 4;
+    private static final int OFF_RECORD_COUNT = 8;
+    private static final int OFF_NAME_COUNT = 12;
+    private static final int OFF_LAST_TICK = 16;
+    private static final int OFF_STARTED_AT = 24;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int NAME_SLOT_SIZE = 32;
+    private static final int RECORD_SIZE = 12;
+
+    private static final int NAMES_OFFSET = HEADER_SIZE;
+    private static final int RECORDS_OFFSET = NAMES_OFFSET + NAME_CAPACITY * NAME_SLOT_SIZE;
+    private static final int FILE_SIZE = RECORDS_OFFSET + RECORD_CAPACITY * RECORD_SIZE;
+
+    private final File file;
+
+    private RandomAccessFile raf;
+    private MappedByteBuffer buffer;
+    private int recordCount;
+    private int nameCount;
+    private boolean overflowLogged;
+
+    @Inject
+    public AttendanceJournal(@Named("boomerangDataDir") File dataDir) {
+        this.file = new File(dataDir, FILE_NAME);
+    }
+
+    /**
+     * Start a fresh session, discarding whatever the journal held before.
+     */
+    public void begin(long startedAtMillis) {
+        if (!ensureOpen()) {
+            return;
+        }
+        recordCount = 0;
+        nameCount = 0;
+        overflowLogged = false;
+        buffer.putInt(OFF_RECORD_COUNT, 0);
+        buffer.putInt(OFF_NAME_COUNT, 0);
+        buffer.putInt(OFF_LAST_TICK, 0);
+        buffer.putLong(OFF_STARTED_AT, startedAtMillis);
+        buffer.putInt(OFF_STATE, STATE_RUNNING);
+    }
+
+    /**
+     * Assign a journal id to a member. Allocates once per new member (name encoding);
+     * every subsequent transition for that member is allocation-free.
+     *
+     * @return member id, or -1 if the journal is unavailable or the name table is full
+     */
+    public int registerMember(String name) {
+        if (buffer == null) {
+            return -1;
+        }
+        if (nameCount >= NAME_CAPACITY) {
+            logOverflow();
+            return -1;
+        }
+
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(bytes.length, NAME_SLOT_SIZE - 1);
+        int slot = NAMES_OFFSET + nameCount * NAME_SLOT_SIZE;
+        buffer.put(slot, (byte) len);
+        for (int i = 0; i < len; i++) {
+            buffer.put(slot + 1 + i, bytes[i]);
+        }
+
+        int id = nameCount++;
+        buffer.putInt(OFF_NAME_COUNT, nameCount);
+        return id;
+    }
+
+    /**
+     * Append a join/leave transition. No allocation.
+     */
+    public void append(int memberId, int elapsedTick, int type) {
+        if (buffer == null || memberId < 0) {
+            return;
+        }
+        if (recordCount >= RECORD_CAPACITY) {
+            logOverflow();
+            return;
+        }
+
+        int pos = RECORDS_OFFSET + recordCount * RECORD_SIZE;
+        buffer.putInt(pos, memberId);
+        buffer.putInt(pos + 4, elapsedTick);
+        buffer.putInt(pos + 8, type);
+        // Publish the count last so a torn write never exposes a half-written record
+        buffer.putInt(OFF_RECORD_COUNT, ++recordCount);
+    }
+
+    /**
+     * Record how far the session has progressed. Called once per tick.
+     */
+    public void heartbeat(int elapsedTick) {
+        if (buffer != null) {
+            buffer.putInt(OFF_LAST_TICK, elapsedTick);
+        }
+    }
+
+    /**
+     * Mark the session as finished so it is not offered for recovery.
+     */
+    public void finish() {
+        if (buffer != null) {
+            buffer.putInt(OFF_STATE, STATE_IDLE);
+        }
+    }
+
+    /**
+     * Read back an unfinished session, if the journal holds one. The journal stays
+     * open so a resumed session keeps appending to the same file. A session last
+     * active more than {@link #MAX_RECOVERY_AGE_MS} ago is marked finished and dropped.
+     *
+     * @return the recovered session, or null if the last session finished cleanly
+     *         or is too old to resume
+     */
+    @Nullable
+    public RecoveredSession recover() {
+        return recover(System.currentTimeMillis());
+    }
+
+    @Nullable
+    RecoveredSession recover(long nowMillis) {
+        if (!file.exists() || !ensureOpen()) {
+            return null;
+        }
+        if (buffer.getInt(OFF_MAGIC) != MAGIC || buffer.getInt(OFF_STATE) != STATE_RUNNING) {
+            return null;
+        }
+
+        // Elapsed ticks approximate the wall clock time of the last journaled transition
+        long lastActiveMillis = buffer.getLong(OFF_STARTED_AT) + buffer.getInt(OFF_LAST_TICK) * TICK_MILLIS;
+        long ageMillis = nowMillis - lastActiveMillis;
+        if (ageMillis > MAX_RECOVERY_AGE_MS) {
+            log.info("[Journal] Dropping unfinished attendance session last active {}h ago",
+                    ageMillis / (60 * 60 * 1000L));
+            finish();
+            return null;
+        }
+
+        int names = clamp(buffer.getInt(OFF_NAME_COUNT), NAME_CAPACITY);
+        int records = clamp(buffer.getInt(OFF_RECORD_COUNT), RECORD_CAPACITY);
+
+        String[] memberNames = new String[names];
+        for (int i = 0; i < names; i++) {
+            int slot = NAMES_OFFSET + i * NAME_SLOT_SIZE;
+            int len = clamp(buffer.get(slot), NAME_SLOT_SIZE - 1);
+            byte[] bytes = new byte[len];
+            for (int b = 0; b < len; b++) {
+                bytes[b] = buffer.get(slot + 1 + b);
+            }
+            memberNames[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int[] recordData = new int[records * 3];
+        for (int i = 0; i < records; i++) {
+            int pos = RECORDS_OFFSET + i * RECORD_SIZE;
+            recordData[i * 3] = buffer.getInt(pos);
+            recordData[i * 3 + 1] = buffer.getInt(pos + 4);
+            recordData[i * 3 + 2] = buffer.getInt(pos + 8);
+        }
+
+        nameCount = names;
+        recordCount = records;
+        overflowLogged = false;
+
+        return new RecoveredSession(
+                buffer.getLong(OFF_STARTED_AT),
+                buffer.getInt(OFF_LAST_TICK),
+                memberNames,
+                recordData,
+                records
+        );
+    }
+
+    /**
+     * Release the mapping. The file itself is kept so an unfinished session
+     * survives a plugin restart.
+     */
+    public void close() {
+        buffer = null;
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (IOException e) {
+                log.debug("[Journal] Failed to close attendance journal", e);
+            }
+            raf = null;
+        }
+    }
+
+    private boolean ensureOpen() {
+        if (buffer != null) {
+            return true;
+        }
+        try {
+            raf = new RandomAccessFile(file, "rw");
+            boolean fresh = raf.length() != FILE_SIZE;
+            if (fresh) {
+                raf.setLength(FILE_SIZE);
+            }
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            if (fresh || buffer.getInt(OFF_MAGIC) != MAGIC) {
+                buffer.putInt(OFF_MAGIC, MAGIC);
+                buffer.putInt(OFF_STATE, STATE_IDLE);
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("[Journal] Could not open attendance journal at {} — crash recovery disabled", file, e);
+            close();
+            return false;
+        }
+    }
+
+    private void logOverflow() {
+        if (!overflowLogged) {
+            overflowLogged = true;
+            log.warn("[Journal] Attendance journal full — further transitions are not crash-safe");
+        }
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+
+    /**
+     * An unfinished session read back from disk.
+     * Records are flattened (memberId, elapsedTick, type) triplets.
+     */
+    public static class RecoveredSession {
+        final long startedAtMillis;
+        final int lastElapsedTick;
+        final String[] memberNames;
+        final int[] records;
+        final int recordCount;
+
+        RecoveredSession(long startedAtMillis, int lastElapsedTick, String[] memberNames,
+                         int[] records, int recordCount) {
+            this.startedAtMillis = startedAtMillis;
+            this.lastElapsedTick = lastElapsedTick;
+            this.memberNames = memberNames;
+            this.records = records;
+            this.recordCount = recordCount;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.boomerangbandits.services;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of a running attendance event, published by
+ * {@link EventAttendanceTracker} once per game tick.
+ * <p>
+ * The tracker's own state belongs to the client thread; the admin panel reads
+ * this snapshot from the EDT instead. {@link #getVersion()} increases with every
+ * publication so the UI can skip repainting when nothing new has arrived.
+ */
+@Getter
+public final class AttendanceSnapshot {
+
+    public static final AttendanceSnapshot EMPTY = new AttendanceSnapshot(
+            0, false, false, 0, 0, 0, 0, 0, Collections.emptyList());
+
+    private final long version;
+    private final boolean running;
+    private final boolean recovered;
+    private final int durationSeconds;
+    /**
+     * Every member seen since the event started.
+     */
+    private final int memberCount;
+    /**
+     * Members on screen right now.
+     */
+    private final int presentCount;
+    private final int meetsThresholdCount;
+    private final int lateCount;
+    /**
+     * Latest arrivals among late members, latest first.
+     */
+    private final List<LateArrival> topLateArrivals;
+
+    AttendanceSnapshot(long version, boolean running, boolean recovered, int durationSeconds,
+                       int memberCount, int presentCount, int meetsThresholdCount, int lateCount,
+                       List<LateArrival> topLateArrivals) {
+        this.version = version;
+        this.running = running;
+        this.recovered = recovered;
+        this.durationSeconds = durationSeconds;
+        this.memberCount = memberCount;
+        this.presentCount = presentCount;
+        this.meetsThresholdCount = meetsThresholdCount;
+        this.lateCount = lateCount;
+        this.topLateArrivals = topLateArrivals;
+    }
+
+    @Getter
+    public static final class LateArrival {
+        private final String name;
+        private final int secondsLate;
+
+        LateArrival(String name, int secondsLate) {
+            this.name = name;
+            this.secondsLate = secondsLate;
+        }
+    }
+}
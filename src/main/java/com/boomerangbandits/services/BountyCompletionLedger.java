@@ -0,0 +1,191 @@
+package com.boomerangbandits.services;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Small on-disk ledger of bounty completions, so each drop is submitted once.
+ * <p>
+ * The same drop can arrive through NpcLootReceived, LootReceived and the pet chat
+ * path. Each completion is keyed by (bountyId, itemId, account, minute bucket) and
+ * hashed to a 64-bit fingerprint; a completion whose fingerprint is already present
+ * for the current or previous bucket is a duplicate and is dropped before any
+ * screenshot is taken.
+ * <p>
+ * The entry is recorded up front, so repeats arriving while the first report is still
+ * being captured and submitted are dropped. If that submission fails the caller
+ * {@link #release releases} the entry, so a later report of the drop is submitted
+ * rather than lost. A client that exits mid-submission keeps the entry: delivery is
+ * at most once across restarts.
+ * <p>
+ * Fingerprints live in memory for O(1) checks and are appended to a text file in
+ * the plugin data directory (off the client thread) so a client restart does not
+ * re-submit a drop. Entries older than {@link #RETENTION_MS} are pruned on load.
+ */
+@Slf4j
+@Singleton
+public class BountyCompletionLedger {
+
+    static final long BUCKET_MS = 60_000;
+    static final long RETENTION_MS = 24 * 60 * 60_000L;
+
+    private static final String FILE_NAME = "bounty-ledger.txt";
+
+    private final File file;
+    private final ScheduledExecutorService executor;
+
+    // fingerprint -> time recorded
+    private final Map<Long, Long> fingerprints = new HashMap<>();
+    private boolean loaded;
+    private final Object fileLock = new Object();
+
+    @Inject
+    public BountyCompletionLedger(@Named("boomerangDataDir") File dataDir, ScheduledExecutorService executor) {
+        this.file = new File(dataDir, FILE_NAME);
+        this.executor = executor;
+    }
+
+    /**
+     * Record a completion unless an identical one was recorded within the last bucket.
+     *
+     * @return true if this is a new completion and should be submitted
+     */
+    public boolean tryRecord(String bountyId, int itemId, long accountHash) {
+        return tryRecord(bountyId, itemId, accountHash, System.currentTimeMillis());
+    }
+
+    synchronized boolean tryRecord(String bountyId, int itemId, long accountHash, long nowMillis) {
+        ensureLoaded(nowMillis);
+
+        long bucket = nowMillis / BUCKET_MS;
+        long fingerprint = fingerprint(bountyId, itemId, accountHash, bucket);
+        // A duplicate can straddle a bucket boundary; check the previous bucket too
+        if (fingerprints.containsKey(fingerprint)
+                || fingerprints.containsKey(fingerprint(bountyId, itemId, accountHash, bucket - 1))) {
+            return false;
+        }
+
+        fingerprints.put(fingerprint, nowMillis);
+        String line = Long.toHexString(fingerprint) + ' ' + nowMillis + '\n';
+        executor.execute(() -> write(line, true));
+        return true;
+    }
+
+    /**
+     * Forget a completion recorded by {@link #tryRecord} whose submission failed.
+     * Only the current and previous bucket can still match a new report, so only
+     * those are removed.
+     */
+    public void release(String bountyId, int itemId, long accountHash) {
+        release(bountyId, itemId, accountHash, System.currentTimeMillis());
+    }
+
+    synchronized void release(String bountyId, int itemId, long accountHash, long nowMillis) {
+        long bucket = nowMillis / BUCKET_MS;
+        boolean removed = fingerprints.remove(fingerprint(bountyId, itemId, accountHash, bucket)) != null;
+        removed |= fingerprints.remove(fingerprint(bountyId, itemId, accountHash, bucket - 1)) != null;
+        if (removed) {
+            rewrite();
+        }
+    }
+
+    static long fingerprint(String bountyId, int itemId, long accountHash, long bucket) {
+        // FNV-1a, 64-bit
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < bountyId.length(); i++) {
+            h = (h ^ bountyId.charAt(i)) * 0x100000001b3L;
+        }
+        h = mix(h, itemId);
+        h = mix(h, accountHash);
+        return mix(h, bucket);
+    }
+
+    private static long mix(long h, long value) {
+        for (int i = 0; i < 8; i++) {
+            h = (h ^ (value & 0xff)) * 0x100000001b3L;
+            value >>>= 8;
+        }
+        return h;
+    }
+
+    private void ensureLoaded(long nowMillis) {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+
+        boolean pruned = false;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space <= 0) {
+                    pruned = true;
+                    continue;
+                }
+                try {
+                    long fingerprint = Long.parseUnsignedLong(line.substring(0, space), 16);
+                    long recordedAt = Long.parseLong(line.substring(space + 1).trim());
+                    if (nowMillis - recordedAt > RETENTION_MS) {
+                        pruned = true;
+                    } else {
+                        fingerprints.put(fingerprint, recordedAt);
+                    }
+                } catch (NumberFormatException e) {
+                    pruned = true;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("[Bounty] Could not read completion ledger {}", file, e);
+            return;
+        }
+
+        if (pruned) {
+            rewrite();
+        }
+    }
+
+    /**
+     * Replace the file with the in-memory entries, off the calling thread.
+     */
+    private void rewrite() {
+        StringBuilder compacted = new StringBuilder();
+        for (Map.Entry<Long, Long> entry : fingerprints.entrySet()) {
+            compacted.append(Long.toHexString(entry.getKey())).append(' ').append(entry.getValue()).append('\n');
+        }
+        String content = compacted.toString();
+        executor.execute(() -> write(content, false));
+    }
+
+    private void write(String content, boolean append) {
+        // Own lock so file IO never holds the monitor tryRecord uses on the client thread
+        synchronized (fileLock) {
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(file, append), StandardCharsets.UTF_8))) {
+                writer.write(content);
+            } catch (IOException e) {
+                log.warn("[Bounty] Could not write completion ledger {}", file, e);
+            }
+        }
+    }
+}
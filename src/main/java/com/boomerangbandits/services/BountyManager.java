@@ -2,10 +2,11 @@ package com.boomerangbandits.services;
 
 import com.boomerangbandits.api.models.PluginConfigResponse;
 import com.boomerangbandits.api.ClanApiService;
+import com.boomerangbandits.events.PetFollowed;
 import com.boomerangbandits.util.GameModeGuard;
+import com.boomerangbandits.util.IntObjectMap;
 import com.boomerangbandits.util.ScreenshotService;
 import com.boomerangbandits.util.PopupNotificationService;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import com.google.common.collect.ImmutableSet;
 import net.runelite.api.ChatMessageType;
@@ -13,7 +14,7 @@ import net.runelite.api.Client;
 import net.runelite.api.NPC;
 import net.runelite.api.Player;
 import net.runelite.api.coords.WorldPoint;
-import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.NpcDespawned;
 import net.runelite.api.events.NpcSpawned;
 import net.runelite.client.chat.ChatMessageManager;
 import net.runelite.client.chat.QueuedMessage;
@@ -24,23 +25,24 @@ import net.runelite.client.events.PlayerLootReceived;
 import net.runelite.client.game.ItemStack;
 import net.runelite.client.plugins.loottracker.LootReceived;
 import net.runelite.http.api.loottracker.LootRecordType;
-import net.runelite.client.util.Text;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.awt.Color;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 
 @Slf4j
 @Singleton
 public class BountyManager {
-    private static final long WINDOW_MS = 10_000;
+    // ~10 seconds; a pet message follows the spawn within a tick or two
+    private static final int WINDOW_TICKS = 17;
+    // Bounty NPC spawns are rare, so a small ring covers the window comfortably
+    private static final int SPAWN_RING_SIZE = 32;
     private static final int NEARBY_TILE_DISTANCE = 5;
-    private static final String FOLLOWED_MESSAGE = "You have a funny feeling like you're being followed";
-    private static final String WOULD_HAVE_BEEN_FOLLOWED_MESSAGE = "You have a funny feeling like you would have been followed";
 
     // NPCs that fire LootReceived (with NPC type) but NOT NpcLootReceived.
     // Must be handled via LootReceived fallback.
@@ -61,7 +63,19 @@ public class BountyManager {
     private final ClanApiService clanApi;
     private final PopupNotificationService popupService;
     private final GameModeGuard gameModeGuard;
-    private final ConcurrentLinkedQueue<NpcSpawnEntry> recentNpcSpawns = new ConcurrentLinkedQueue<>();
+    private final BountyCompletionLedger completionLedger;
+    // Ring of recent bounty NPC spawns near the player, as parallel (npcId, tick) arrays.
+    // Client thread only; overwritten oldest-first.
+    private final int[] spawnNpcIds = new int[SPAWN_RING_SIZE];
+    private final int[] spawnTicks = new int[SPAWN_RING_SIZE];
+    private int spawnHead;
+    private int spawnCount;
+    // Bounty NPCs currently in the scene, at any distance. Client thread only.
+    private final Set<NPC> sceneBountyNpcs = new HashSet<>();
+    private final Consumer<PluginConfigResponse> configListener = this::rebuildIndex;
+
+    // Rebuilt off-thread on every config sync, swapped in whole
+    private volatile BountyIndex index = BountyIndex.EMPTY;
 
     @Inject
     public BountyManager(
@@ -73,7 +87,8 @@ public class BountyManager {
             FeatureFlagService featureFlagService,
             ClanApiService clanApi,
             PopupNotificationService popupService,
-            GameModeGuard gameModeGuard
+            GameModeGuard gameModeGuard,
+            BountyCompletionLedger completionLedger
     ) {
         this.eventBus = eventBus;
         this.configSyncService = configSyncService;
@@ -84,20 +99,9 @@ public class BountyManager {
         this.clanApi = clanApi;
         this.popupService = popupService;
         this.gameModeGuard = gameModeGuard;
+        this.completionLedger = completionLedger;
     }
 
-    @Getter
-	public static class NpcSpawnEntry {
-        private final int npcId;
-        private final long timestamp;
-
-        public NpcSpawnEntry(int npcId, long timestamp) {
-            this.npcId = npcId;
-            this.timestamp = timestamp;
-        }
-
-	}
-
     @Subscribe
     public void onNpcSpawned(NpcSpawned event) {
         if (!gameModeGuard.isStandardWorld()) {
@@ -113,6 +117,12 @@ public class BountyManager {
             return;
         }
 
+        // Most spawns are NPCs no bounty cares about — reject them before any geometry
+        if (!index.byNpcId.containsKey(npc.getId())) {
+            return;
+        }
+        sceneBountyNpcs.add(npc);
+
         WorldPoint npcLocation = npc.getWorldLocation();
         WorldPoint playerLocation = localPlayer.getWorldLocation();
         if (npcLocation == null || playerLocation == null) {
@@ -123,47 +133,34 @@ public class BountyManager {
             return;
         }
 
-        recentNpcSpawns.add(new NpcSpawnEntry(npc.getId(), System.currentTimeMillis()));
-        pruneStaleSpawns();
+        recordSpawn(npc.getId(), client.getTickCount());
     }
 
     @Subscribe
-    public void onChatMessage(ChatMessage event) {
+    public void onNpcDespawned(NpcDespawned event) {
+        sceneBountyNpcs.remove(event.getNpc());
+    }
+
+    /**
+     * Pet drops have no loot event; correlate the pet message with a recent nearby spawn.
+     */
+    @Subscribe
+    public void onPetFollowed(PetFollowed event) {
         if (!gameModeGuard.isStandardWorld()) {
             return;
         }
-        if (!featureFlagService.isBountyTrackingEnabled() || event.getType() != ChatMessageType.GAMEMESSAGE) {
-            return;
-        }
-
-        String message = Text.removeTags(event.getMessage());
-        if (message == null ||
-                (!message.contains(FOLLOWED_MESSAGE) && !message.contains(WOULD_HAVE_BEEN_FOLLOWED_MESSAGE))) {
+        if (!featureFlagService.isBountyTrackingEnabled()) {
             return;
         }
 
-        pruneStaleSpawns();
-
-        PluginConfigResponse latest = configSyncService.getLatestConfig();
-        if (latest == null || latest.getBounties() == null || latest.getBounties().isEmpty()) {
+        BountyIndex current = index;
+        if (current.byNpcId.isEmpty()) {
             return;
         }
 
-        for (PluginConfigResponse.Bounty bounty : latest.getBounties()) {
-            if (bounty == null || bounty.getItems() == null) {
-                continue;
-            }
-
-            for (PluginConfigResponse.BountyItem item : bounty.getItems()) {
-                if (item == null || item.getNpcIds() == null || item.getNpcIds().isEmpty()) {
-                    continue;
-                }
-
-                if (hasRecentSpawnMatch(item.getNpcIds())) {
-                    onBountyCompleted(bounty, item);
-                    return;
-                }
-            }
+        BountyMatch match = findRecentSpawnMatch(current);
+        if (match != null) {
+            onBountyCompleted(match.bounty, match.item);
         }
     }
 
@@ -204,67 +201,113 @@ public class BountyManager {
             return;
         }
 
-        PluginConfigResponse latest = configSyncService.getLatestConfig();
-        if (latest == null || latest.getBounties() == null || latest.getBounties().isEmpty()) {
+        BountyIndex current = index;
+        if (current.byItemId.isEmpty()) {
             return;
         }
 
-        for (PluginConfigResponse.Bounty bounty : latest.getBounties()) {
-            if (bounty == null || bounty.getItems() == null) {
-                continue;
+        // One lookup per loot stack; the earliest bounty in config order wins, as before
+        BountyMatch best = null;
+        for (ItemStack stack : items) {
+            BountyMatch match = current.byItemId.get(stack.getId());
+            if (match != null && (best == null || match.ordinal < best.ordinal)) {
+                best = match;
             }
+        }
 
-            for (PluginConfigResponse.BountyItem bountyItem : bounty.getItems()) {
-                if (bountyItem == null || bountyItem.getItemId() <= 0) {
-                    continue;
-                }
-
-                // Skip pet-mode items — those are handled via chat + NPC spawn correlation
-                if (bountyItem.getNpcIds() != null && !bountyItem.getNpcIds().isEmpty()) {
-                    continue;
-                }
-
-                if (hasLootItemMatch(items, bountyItem.getItemId())) {
-                    onBountyCompleted(bounty, bountyItem);
-                    return;
-                }
-            }
+        if (best != null) {
+            onBountyCompleted(best.bounty, best.item);
         }
     }
 
     public void startUp() {
+        configSyncService.addConfigListener(configListener);
+        rebuildIndex(configSyncService.getLatestConfig());
         eventBus.register(this);
     }
 
     public void shutDown() {
         reset();
         eventBus.unregister(this);
+        configSyncService.removeConfigListener(configListener);
+        index = BountyIndex.EMPTY;
     }
 
-    public void reset() {
-        recentNpcSpawns.clear();
+    /**
+     * Whether the player is hunting a bounty right now: a bounty NPC spawned nearby within
+     * the pet window, or one is still standing near the player. Arms the screenshot frame
+     * buffer, so it must go false again as soon as neither holds. Client thread only.
+     */
+    public boolean isHuntingBounty() {
+        if (!featureFlagService.isBountyTrackingEnabled() || !gameModeGuard.isStandardWorld()) {
+            return false;
+        }
+        if (spawnCount > 0) {
+            int newest = (spawnHead - 1 + SPAWN_RING_SIZE) % SPAWN_RING_SIZE;
+            if (client.getTickCount() - spawnTicks[newest] <= WINDOW_TICKS) {
+                return true;
+            }
+        }
+        return isBountyNpcNearby();
     }
 
-
-    private void pruneStaleSpawns() {
-        long cutoff = System.currentTimeMillis() - WINDOW_MS;
-        NpcSpawnEntry entry;
-        while ((entry = recentNpcSpawns.peek()) != null && entry.getTimestamp() < cutoff) {
-            recentNpcSpawns.poll();
+    private boolean isBountyNpcNearby() {
+        if (sceneBountyNpcs.isEmpty()) {
+            return false;
+        }
+        Player localPlayer = client.getLocalPlayer();
+        WorldPoint playerLocation = localPlayer != null ? localPlayer.getWorldLocation() : null;
+        if (playerLocation == null) {
+            return false;
         }
-    }
 
-    private boolean hasRecentSpawnMatch(List<Integer> npcIds) {
-        for (NpcSpawnEntry spawnEntry : recentNpcSpawns) {
-            if (npcIds.contains(spawnEntry.getNpcId())) {
+        BountyIndex current = index;
+        for (NPC npc : sceneBountyNpcs) {
+            WorldPoint npcLocation = npc.getWorldLocation();
+            if (current.byNpcId.containsKey(npc.getId()) && npcLocation != null
+                    && npcLocation.distanceTo(playerLocation) <= NEARBY_TILE_DISTANCE) {
                 return true;
             }
         }
         return false;
     }
 
-    private boolean hasLootItemMatch(Collection<ItemStack> items, int itemId) {
-        return items.stream().anyMatch(itemStack -> itemStack.getId() == itemId);
+    public void reset() {
+        spawnHead = 0;
+        spawnCount = 0;
+        sceneBountyNpcs.clear();
+    }
+
+    private void recordSpawn(int npcId, int tick) {
+        spawnNpcIds[spawnHead] = npcId;
+        spawnTicks[spawnHead] = tick;
+        spawnHead = (spawnHead + 1) % SPAWN_RING_SIZE;
+        if (spawnCount < SPAWN_RING_SIZE) {
+            spawnCount++;
+        }
+    }
+
+    private BountyMatch findRecentSpawnMatch(BountyIndex current) {
+        int now = client.getTickCount();
+        BountyMatch best = null;
+        // Walk newest to oldest; everything past the first expired entry is older still
+        for (int i = 1; i <= spawnCount; i++) {
+            int slot = (spawnHead - i + SPAWN_RING_SIZE) % SPAWN_RING_SIZE;
+            if (now - spawnTicks[slot] > WINDOW_TICKS) {
+                break;
+            }
+            BountyMatch match = current.byNpcId.get(spawnNpcIds[slot]);
+            if (match != null && (best == null || match.ordinal < best.ordinal)) {
+                best = match;
+            }
+        }
+        return best;
+    }
+
+    private void rebuildIndex(PluginConfigResponse config) {
+        index = BountyIndex.build(config);
+        log.debug("Bounty index rebuilt: {} loot items, {} pet NPCs",
+                index.byItemId.size(), index.byNpcId.size());
     }
 
     private void onBountyCompleted(PluginConfigResponse.Bounty bounty, PluginConfigResponse.BountyItem item) {
@@ -274,11 +317,20 @@ public class BountyManager {
         int itemId = item.getItemId();
         String rsn = client.getLocalPlayer() != null ? client.getLocalPlayer().getName() : "Unknown";
 
+        long accountHash = client.getAccountHash();
+
+        // The same drop can arrive via several loot/chat paths — drop repeats before the screenshot.
+        // The entry is released again if the submission fails, so the drop is not lost.
+        if (!completionLedger.tryRecord(bountyId, itemId, accountHash)) {
+            log.debug("Duplicate bounty completion ignored: {} - {}", bountyId, itemName);
+            return;
+        }
+
         screenshotService.captureScreenshot().thenAccept(base64 -> {
             log.info("Bounty completed: {} - {} (rsn={})", bountyId, itemName, rsn);
 
             // Show native OSRS popup (same as collection log notification)
-            popupService.showPopup("Bounty Complete", "<col=FFFFFF>" + bountyName + "</col>:<br>" + itemName);
+            popupService.showPopup(PopupNotificationService.PopupType.BOUNTY, "Bounty Complete", "<col=FFFFFF>" + bountyName + "</col>:<br>" + itemName);
 
             chatMessageManager.queue(QueuedMessage.builder()
                     .type(ChatMessageType.BROADCAST)
@@ -292,11 +344,90 @@ public class BountyManager {
                         } else {
                             log.warn("Backend rejected bounty completion: {} - {}: {}",
                                     bountyId, itemName, response.getMessage());
+                            completionLedger.release(bountyId, itemId, accountHash);
                         }
                     },
-                    error -> log.warn("Failed to submit bounty completion: {} - {}: {}",
-                            bountyId, itemName, error)
+                    error -> {
+                        log.warn("Failed to submit bounty completion: {} - {}: {}",
+                                bountyId, itemName, error);
+                        completionLedger.release(bountyId, itemId, accountHash);
+                    }
             );
+        }).exceptionally(e -> {
+            log.warn("Bounty completion screenshot failed: {} - {}", bountyId, itemName, e);
+            completionLedger.release(bountyId, itemId, accountHash);
+            return null;
         });
     }
+
+    /**
+     * Lookup tables built from the remote bounty list: loot-mode items by item id and
+     * pet-mode items by NPC id. Built once per config sync and never modified after
+     * publication.
+     */
+    private static final class BountyIndex {
+        static final BountyIndex EMPTY = new BountyIndex(new IntObjectMap<>(0), new IntObjectMap<>(0));
+
+        final IntObjectMap<BountyMatch> byItemId;
+        final IntObjectMap<BountyMatch> byNpcId;
+
+        private BountyIndex(IntObjectMap<BountyMatch> byItemId, IntObjectMap<BountyMatch> byNpcId) {
+            this.byItemId = byItemId;
+            this.byNpcId = byNpcId;
+        }
+
+        boolean isEmpty() {
+            return byItemId.isEmpty() && byNpcId.isEmpty();
+        }
+
+        static BountyIndex build(PluginConfigResponse config) {
+            if (config == null || config.getBounties() == null || config.getBounties().isEmpty()) {
+                return EMPTY;
+            }
+
+            IntObjectMap<BountyMatch> byItemId = new IntObjectMap<>();
+            IntObjectMap<BountyMatch> byNpcId = new IntObjectMap<>();
+            int ordinal = 0;
+
+            for (PluginConfigResponse.Bounty bounty : config.getBounties()) {
+                if (bounty == null || bounty.getItems() == null) {
+                    continue;
+                }
+
+                for (PluginConfigResponse.BountyItem item : bounty.getItems()) {
+                    if (item == null) {
+                        continue;
+                    }
+                    BountyMatch match = new BountyMatch(bounty, item, ordinal++);
+
+                    // Pet-mode items are matched via chat + NPC spawn correlation, never loot
+                    List<Integer> npcIds = item.getNpcIds();
+                    if (npcIds != null && !npcIds.isEmpty()) {
+                        for (Integer npcId : npcIds) {
+                            if (npcId != null) {
+                                byNpcId.putIfAbsent(npcId, match);
+                            }
+                        }
+                    } else if (item.getItemId() > 0) {
+                        byItemId.putIfAbsent(item.getItemId(), match);
+                    }
+                }
+            }
+
+            return new BountyIndex(byItemId, byNpcId);
+        }
+    }
+
+    private static final class BountyMatch {
+        final PluginConfigResponse.Bounty bounty;
+        final PluginConfigResponse.BountyItem item;
+        // Position in config order; lower wins when several bounties match
+        final int ordinal;
+
+        BountyMatch(PluginConfigResponse.Bounty bounty, PluginConfigResponse.BountyItem item, int ordinal) {
+            this.bounty = bounty;
+            this.item = item;
+            this.ordinal = ordinal;
+        }
+    }
 }
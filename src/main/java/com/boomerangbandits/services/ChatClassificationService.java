@@ -0,0 +1,151 @@
+package com.boomerangbandits.services;
+
+import com.boomerangbandits.events.CofferDeposited;
+import com.boomerangbandits.events.PetFollowed;
+import com.boomerangbandits.util.MultiPatternMatcher;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.events.ChatMessage;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * The plugin's single {@link ChatMessage} subscriber.
+ * <p>
+ * Each message is filtered by type first (only types some feature listens to, and
+ * only while that feature is enabled), then stripped of tags once into a reused
+ * buffer and run through one {@link MultiPatternMatcher} pass covering every
+ * pattern the plugin cares about. Recognised messages are re-posted on the
+ * EventBus as typed events ({@link CofferDeposited}, {@link PetFollowed}), so
+ * services subscribe to what they need instead of parsing chat themselves.
+ * <p>
+ * Runs on the client thread.
+ */
+@Slf4j
+@Singleton
+public class ChatClassificationService {
+
+    private static final String DEPOSITED = " has deposited ";
+    private static final String INTO_COFFER = " coins into the coffer.";
+    private static final String FOLLOWED = "You have a funny feeling like you're being followed";
+    private static final String WOULD_HAVE_BEEN_FOLLOWED = "You have a funny feeling like you would have been followed";
+
+    // Bits reported by MATCHER, in constructor order
+    private static final int DEPOSITED_BIT = 1;
+    private static final int INTO_COFFER_BIT = 1 << 1;
+    private static final int FOLLOWED_BIT = 1 << 2;
+    private static final int WOULD_HAVE_BEEN_FOLLOWED_BIT = 1 << 3;
+    private static final int COFFER_BITS = DEPOSITED_BIT | INTO_COFFER_BIT;
+
+    private static final MultiPatternMatcher MATCHER = new MultiPatternMatcher(
+            DEPOSITED, INTO_COFFER, FOLLOWED, WOULD_HAVE_BEEN_FOLLOWED);
+
+    // Reused tag-stripping buffer; chat is only delivered on the client thread
+    private final StringBuilder stripped = new StringBuilder(256);
+
+    @Inject
+    private EventBus eventBus;
+    @Inject
+    private FeatureFlagService featureFlagService;
+
+    @Subscribe
+    public void onChatMessage(ChatMessage event) {
+        ChatMessageType type = event.getType();
+        boolean clanChannel = type == ChatMessageType.CLAN_MESSAGE || type == ChatMessageType.FRIENDSCHAT;
+
+        if (clanChannel) {
+            if (!featureFlagService.isCofferSoundEnabled()) {
+                return;
+            }
+        } else if (type == ChatMessageType.GAMEMESSAGE) {
+            if (!featureFlagService.isBountyTrackingEnabled()) {
+                return;
+            }
+        } else {
+            return;
+        }
+
+        String message = event.getMessage();
+        if (message == null) {
+            return;
+        }
+
+        stripTags(message);
+        int found = MATCHER.match(stripped);
+        if (found == 0) {
+            return;
+        }
+
+        if (clanChannel) {
+            if ((found & COFFER_BITS) == COFFER_BITS) {
+                classifyDeposit();
+            }
+        } else if ((found & FOLLOWED_BIT) != 0) {
+            eventBus.post(new PetFollowed(false));
+        } else if ((found & WOULD_HAVE_BEEN_FOLLOWED_BIT) != 0) {
+            eventBus.post(new PetFollowed(true));
+        }
+    }
+
+    /**
+     * Copy {@code message} into {@link #stripped} without any {@code <...>} tags
+     * (e.g. {@code <col=ff0000>}). An unterminated {@code <} is kept as text.
+     */
+    private void stripTags(String message) {
+        stripped.setLength(0);
+        int length = message.length();
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            if (c == '<') {
+                int close = message.indexOf('>', i + 1);
+                if (close >= 0) {
+                    i = close;
+                    continue;
+                }
+            }
+            stripped.append(c);
+        }
+    }
+
+    /**
+     * Parse "{RSN} has deposited {amount} coins into the coffer." out of the stripped
+     * message. Only reached when both fragments are present, so allocation here is fine.
+     */
+    private void classifyDeposit() {
+        String text = stripped.toString().trim();
+        String lower = text.toLowerCase();
+        if (!lower.endsWith(INTO_COFFER)) {
+            return;
+        }
+
+        int amountEnd = text.length() - INTO_COFFER.length();
+        int depositedAt = lower.lastIndexOf(DEPOSITED, amountEnd - DEPOSITED.length());
+        if (depositedAt <= 0) {
+            return;
+        }
+
+        int amountStart = depositedAt + DEPOSITED.length();
+        if (amountStart >= amountEnd) {
+            return;
+        }
+
+        long amount = 0;
+        for (int i = amountStart; i < amountEnd; i++) {
+            char c = text.charAt(i);
+            if (c == ',') {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return;
+            }
+            amount = Math.min(amount * 10 + (c - '0'), Long.MAX_VALUE / 10);
+        }
+
+        String depositor = text.substring(0, depositedAt);
+        log.debug("Coffer deposit detected: {} deposited {}", depositor, amount);
+        eventBus.post(new CofferDeposited(depositor, amount));
+    }
+}
@@ -0,0 +1,284 @@
+package com.boomerangbandits.services;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.Player;
+import net.runelite.api.clan.ClanChannel;
+import net.runelite.api.clan.ClanChannelMember;
+import net.runelite.api.clan.ClanRank;
+import net.runelite.api.clan.ClanSettings;
+import net.runelite.api.clan.ClanTitle;
+import net.runelite.client.util.Text;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally maintained index of who is in the clan channel and who is visible.
+ * <p>
+ * Keyed by normalised (Jagex, lowercase) name. Each entry links the clan channel
+ * member (world, rank) with the visible {@link Player}, so attendance, clan
+ * validation and admin checks get O(1) lookups instead of scanning the player
+ * list or calling {@code ClanChannel.findMember} every time.
+ * <p>
+ * Maintained from ClanMemberJoined/Left and ClanChannelChanged (forwarded from
+ * BoomerangBanditsPlugin) and from per-tick player batches delivered by
+ * {@link PlayerEventBatcher}. If the client's
+ * clan channel instance changes without an event reaching us (e.g. the plugin was
+ * enabled while logged in), the index rebuilds itself on the next lookup.
+ * <p>
+ * Must only be used from the client thread.
+ */
+@Slf4j
+@Singleton
+public class ClanPresenceIndex {
+
+    private final Map<String, Presence> byName = new HashMap<>();
+    // Resolved clan titles by rank value; titles come from ClanSettings and rarely change
+    private final Map<Integer, String> titleByRank = new HashMap<>();
+
+    @Inject
+    private Client client;
+
+    private ClanChannel indexedChannel;
+    private ClanSettings indexedSettings;
+
+    // -------------------------------------------------------------------------
+    // Lookups
+    // -------------------------------------------------------------------------
+
+    @Nullable
+    public Presence get(String name) {
+        ensureCurrent();
+        return byName.get(nameToKey(name));
+    }
+
+    @Nullable
+    public ClanChannelMember getMember(String name) {
+        Presence presence = get(name);
+        return presence != null ? presence.member : null;
+    }
+
+    @Nullable
+    public Player getVisiblePlayer(String name) {
+        Presence presence = get(name);
+        return presence != null ? presence.player : null;
+    }
+
+    /**
+     * The local player's clan channel entry, or null if not in the channel yet.
+     */
+    @Nullable
+    public ClanChannelMember getLocalMember() {
+        Player local = client.getLocalPlayer();
+        if (local == null || local.getName() == null) {
+            return null;
+        }
+        return getMember(local.getName());
+    }
+
+    /**
+     * Resolve a clan rank to its lowercase custom title, or null if ClanSettings
+     * has not loaded or the rank has no title.
+     */
+    @Nullable
+    public String getTitle(@Nullable ClanRank rank) {
+        if (rank == null) {
+            return null;
+        }
+
+        ClanSettings settings = client.getClanSettings();
+        if (settings == null) {
+            return null;
+        }
+        if (settings != indexedSettings) {
+            indexedSettings = settings;
+            titleByRank.clear();
+        }
+
+        int rankValue = rank.getRank();
+        if (titleByRank.containsKey(rankValue)) {
+            return titleByRank.get(rankValue);
+        }
+
+        ClanTitle title = settings.titleForRank(rank);
+        String name = title != null && title.getName() != null
+                ? title.getName().toLowerCase().trim()
+                : null;
+        titleByRank.put(rankValue, name);
+        return name;
+    }
+
+    public int size() {
+        ensureCurrent();
+        return byName.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // Event handlers — forward these from BoomerangBanditsPlugin
+    // -------------------------------------------------------------------------
+
+    public void onClanChannelChanged(@Nullable ClanChannel channel, boolean guest) {
+        if (guest) {
+            return;
+        }
+        rebuild(channel);
+    }
+
+    public void onClanMemberJoined(ClanChannel channel, ClanChannelMember member) {
+        if (!isIndexedChannel(channel)) {
+            return;
+        }
+        presenceFor(member.getName()).member = member;
+    }
+
+    public void onClanMemberLeft(ClanChannel channel, ClanChannelMember member) {
+        if (!isIndexedChannel(channel)) {
+            return;
+        }
+        String key = nameToKey(member.getName());
+        Presence presence = byName.get(key);
+        if (presence == null) {
+            return;
+        }
+        presence.member = null;
+        if (presence.player == null) {
+            byName.remove(key);
+        }
+    }
+
+    /**
+     * {@link PlayerEventBatcher.Subscriber} entry point.
+     */
+    public void onPlayersChanged(List<Player> spawned, List<Player> despawned) {
+        for (int i = 0; i < despawned.size(); i++) {
+            onPlayerDespawned(despawned.get(i));
+        }
+        for (int i = 0; i < spawned.size(); i++) {
+            onPlayerSpawned(spawned.get(i));
+        }
+    }
+
+    private void onPlayerSpawned(Player player) {
+        if (player == null || player.getName() == null) {
+            return;
+        }
+        presenceFor(player.getName()).player = player;
+    }
+
+    private void onPlayerDespawned(Player player) {
+        if (player == null || player.getName() == null) {
+            return;
+        }
+        String key = nameToKey(player.getName());
+        Presence presence = byName.get(key);
+        if (presence == null || presence.player != player) {
+            return;
+        }
+        presence.player = null;
+        if (presence.member == null) {
+            byName.remove(key);
+        }
+    }
+
+    /**
+     * Forget visible players. Call on hop/logout — the scene is rebuilt from scratch.
+     */
+    public void clearPlayers() {
+        Iterator<Presence> it = byName.values().iterator();
+        while (it.hasNext()) {
+            Presence presence = it.next();
+            presence.player = null;
+            if (presence.member == null) {
+                it.remove();
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Internal helpers
+    // -------------------------------------------------------------------------
+
+    private boolean isIndexedChannel(ClanChannel channel) {
+        ensureCurrent();
+        return channel != null && channel == indexedChannel;
+    }
+
+    private void ensureCurrent() {
+        ClanChannel current = client.getClanChannel();
+        if (current != indexedChannel) {
+            rebuild(current);
+        }
+    }
+
+    private void rebuild(@Nullable ClanChannel channel) {
+        byName.clear();
+        titleByRank.clear();
+        indexedChannel = channel;
+
+        if (channel != null) {
+            for (ClanChannelMember member : channel.getMembers()) {
+                presenceFor(member.getName()).member = member;
+            }
+        }
+
+        if (client.getTopLevelWorldView() != null) {
+            for (Player player : client.getTopLevelWorldView().players()) {
+                if (player != null && player.getName() != null) {
+                    presenceFor(player.getName()).player = player;
+                }
+            }
+        }
+
+        log.debug("[Presence] Rebuilt index for channel {} ({} entries)",
+                channel != null ? channel.getName() : null, byName.size());
+    }
+
+    private Presence presenceFor(String name) {
+        return byName.computeIfAbsent(nameToKey(name), k -> new Presence(name));
+    }
+
+    private static String nameToKey(String name) {
+        return Text.toJagexName(name).toLowerCase();
+    }
+
+    // -------------------------------------------------------------------------
+    // Entry
+    // -------------------------------------------------------------------------
+
+    /**
+     * One clan member and/or visible player.
+     */
+    public static class Presence {
+        @Getter
+        private final String name;
+        @Getter
+        @Nullable
+        private ClanChannelMember member;
+        @Getter
+        @Nullable
+        private Player player;
+
+        Presence(String name) {
+            this.name = name;
+        }
+
+        /**
+         * World the member is on, or -1 if not in the clan channel.
+         */
+        public int getWorld() {
+            return member != null ? member.getWorld() : -1;
+        }
+
+        @Nullable
+        public ClanRank getRank() {
+            return member != null ? member.getRank() : null;
+        }
+    }
+}
@@ -4,13 +4,9 @@ import com.boomerangbandits.BoomerangBanditsConfig;
 import com.boomerangbandits.api.ApiConstants;
 import com.boomerangbandits.api.models.RankSyncRequest;
 import com.boomerangbandits.api.models.RankSyncResponse;
+import com.boomerangbandits.util.TokenBucket;
 import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.api.Client;
-import net.runelite.api.clan.ClanRank;
-import net.runelite.api.clan.ClanSettings;
-import net.runelite.api.clan.ClanTitle;
-import net.runelite.client.callback.ClientThread;
 import net.runelite.client.util.Text;
 import okhttp3.*;
 
@@ -19,6 +15,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -31,15 +28,22 @@ import java.util.function.Consumer;
  * - Collects ranks from ALL clan members (including offline) using ClanSettings
  * - Normalizes rank names to canonical backend values
  * - Filters out bot accounts (names starting with [#)
- * - Batches updates (max 1000 per request)
- * - Rate limiting (3 requests per minute)
- * - Periodic sync (configurable interval)
+ * - Differential sync: only adds, rank changes and removals since the last
+ *   acknowledged sync are sent (see {@link RankSyncDigest}), with a full sync as
+ *   fallback on a version mismatch
+ * - Batches full syncs (max 1000 per request), sent with adaptive concurrency and
+ *   merged into one result
+ * - Rate limiting (token bucket: bursts of 3, refilled over a minute), counted only
+ *   for syncs actually sent
+ * - Event-driven sync: roster changes signalled by {@link ClanRosterService} are
+ *   debounced into one sync per quiet window
+ * - Slow periodic sync as a safety net
  * - Manual sync on demand
  * - Detailed logging of rank distribution
  * <p>
  * Implementation follows WiseOldMan's approach:
- * - Uses ClanSettings.getMembers() to get full roster (not just online)
- * - Uses custom titles from ClanSettings.titleForRank() for rank names
+ * - Uses the full roster (not just online) via the shared {@link RosterSnapshot}
+ * - Uses the clan's custom rank titles for rank names
  */
 @Slf4j
 @Singleton
@@ -48,20 +52,41 @@ public class ClanRankSyncService {
     private static final int MAX_BATCH_SIZE = 1000;
     private static final int RATE_LIMIT_REQUESTS = 3;
     private static final long RATE_LIMIT_WINDOW_MS = 60_000; // 1 minute
-    private static final int DEFAULT_SYNC_INTERVAL_MINUTES = 30;
-    private final List<Long> recentRequestTimes = Collections.synchronizedList(new ArrayList<>());
-    @Inject
-    private Client client;
-    @Inject
-    private ClientThread clientThread;
+    // Safety net only; roster signals trigger the regular syncs
+    private static final int SAFETY_NET_INTERVAL_MINUTES = 180;
+    // A sync runs once signals have been quiet this long...
+    private static final long DEBOUNCE_QUIET_MS = 30_000;
+    // ...or this long after the first signal, whichever comes first
+    private static final long DEBOUNCE_MAX_DELAY_MS = 5 * 60_000;
+    private static final int HTTP_CONFLICT = 409;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    // Full-sync batch concurrency: grows by one per window of fast responses,
+    // halves on a 429 or a slow response
+    private static final int INITIAL_BATCH_CONCURRENCY = 2;
+    private static final int MAX_BATCH_CONCURRENCY = 4;
+    private static final long SLOW_BATCH_MS = 5_000;
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+    private static final long RATE_LIMITED_BACKOFF_MS = 2_000;
+    private final TokenBucket rateLimiter = new TokenBucket(RATE_LIMIT_REQUESTS, RATE_LIMIT_WINDOW_MS, TimeUnit.MILLISECONDS);
     @Inject
     private BoomerangBanditsConfig config;
     @Inject
     private @Named("boomerang") OkHttpClient httpClient;
     @Inject
     private Gson gson;
+    @Inject
+    private RankSyncDigest rankDigest;
+    @Inject
+    private ClanRosterService clanRoster;
     private ScheduledFuture<?> periodicSyncTask;
     private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    private final Object debounceLock = new Object();
+    private ScheduledFuture<?> debouncedSync;
+    private long firstSignalAt;
+    private long lastSignalAt;
+    private final Runnable rosterListener = this::requestSync;
     private volatile String authToken;
     private volatile long accountHash = -1;
 
@@ -74,7 +99,8 @@ public class ClanRankSyncService {
     }
 
     /**
-     * Start periodic rank syncing.
+     * Start rank syncing: an initial debounced sync, then event-driven syncs with a
+     * slow periodic safety net.
      */
     public void start(ScheduledExecutorService executor) {
         if (periodicSyncTask != null && !periodicSyncTask.isCancelled()) {
@@ -82,20 +108,33 @@ public class ClanRankSyncService {
         }
 
         this.executor = executor;
-        log.info("Starting clan rank sync service (interval: {} minutes)", DEFAULT_SYNC_INTERVAL_MINUTES);
+        running = true;
+        log.info("Starting clan rank sync service (safety net: {} minutes)", SAFETY_NET_INTERVAL_MINUTES);
 
+        clanRoster.addChangeListener(rosterListener);
         periodicSyncTask = executor.scheduleAtFixedRate(
-                this::syncRanksAsync,
-                5, // Initial delay (minutes)
-                DEFAULT_SYNC_INTERVAL_MINUTES,
+                this::syncRanksSafetyNet,
+                SAFETY_NET_INTERVAL_MINUTES,
+                SAFETY_NET_INTERVAL_MINUTES,
                 TimeUnit.MINUTES
         );
+
+        // Roster signals from before authentication were ignored; catch up once
+        requestSync();
     }
 
     /**
-     * Stop periodic syncing.
+     * Stop periodic and pending debounced syncing.
      */
     public void stop() {
+        running = false;
+        clanRoster.removeChangeListener(rosterListener);
+        synchronized (debounceLock) {
+            if (debouncedSync != null) {
+                debouncedSync.cancel(false);
+                debouncedSync = null;
+            }
+        }
         if (periodicSyncTask != null) {
             periodicSyncTask.cancel(false);
             periodicSyncTask = null;
@@ -103,176 +142,284 @@ public class ClanRankSyncService {
         }
     }
 
+    /**
+     * Note a possible roster change (clan settings update, member joined or left).
+     * Signals are coalesced: one sync runs once they have been quiet for
+     * {@link #DEBOUNCE_QUIET_MS}, or at most {@link #DEBOUNCE_MAX_DELAY_MS} after the first.
+     * Thread-safe; ignored while the service is stopped.
+     */
+    public void requestSync() {
+        if (!running) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (debounceLock) {
+            lastSignalAt = now;
+            if (debouncedSync != null) {
+                return;
+            }
+            firstSignalAt = now;
+            debouncedSync = executor.schedule(this::runDebouncedSync, DEBOUNCE_QUIET_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runDebouncedSync() {
+        long now = System.currentTimeMillis();
+        synchronized (debounceLock) {
+            if (!running) {
+                debouncedSync = null;
+                return;
+            }
+            long quietFor = now - lastSignalAt;
+            long waited = now - firstSignalAt;
+            if (quietFor < DEBOUNCE_QUIET_MS && waited < DEBOUNCE_MAX_DELAY_MS) {
+                long delay = Math.min(DEBOUNCE_QUIET_MS - quietFor, DEBOUNCE_MAX_DELAY_MS - waited);
+                debouncedSync = executor.schedule(this::runDebouncedSync, delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            debouncedSync = null;
+        }
+        log.debug("[RankSync] Roster signals settled, syncing");
+        syncRanksAsync();
+    }
+
     /**
      * Manually trigger a rank sync.
      * This is async and will call the callback when complete.
      */
     public void syncRanksManually(Consumer<RankSyncResponse> onSuccess, Consumer<Exception> onError) {
         log.info("Manual rank sync triggered");
-        syncRanks(onSuccess, onError);
+        syncRanks(true, onSuccess, onError);
     }
 
     /**
-     * Async wrapper for periodic sync (no callbacks).
+     * Periodic safety net: rebuilds the roster in case a roster signal was missed.
+     */
+    private void syncRanksSafetyNet() {
+        syncRanks(true, this::logSyncResult, error -> log.warn("Rank sync failed", error));
+    }
+
+    /**
+     * Async wrapper for debounced sync (no callbacks).
      */
     private void syncRanksAsync() {
-        syncRanks(
-                response -> log.info("Rank sync complete: {} synced, {} updated, {} unchanged, {} created, {} not found",
+        syncRanks(false, this::logSyncResult, error -> log.warn("Rank sync failed", error));
+    }
+
+    private void logSyncResult(RankSyncResponse response) {
+        log.info("Rank sync complete: {} synced, {} updated, {} unchanged, {} created, {} not found",
                         response.getSynced(), response.getUpdated(), response.getUnchanged(),
                         response.getCreated(),
-                        response.getNotFound() != null ? response.getNotFound().size() : 0),
-                error -> log.warn("Rank sync failed", error)
-        );
+                        response.getNotFound() != null ? response.getNotFound().size() : 0);
     }
 
     /**
-     * Main sync logic - collects ranks and sends to backend.
+     * Main sync logic - the roster snapshot is built in slices on the client thread,
+     * then mapped, diffed and sent off the client thread.
+     *
+     * @param refreshRoster rebuild the snapshot even if no roster change was signalled
      */
-    private void syncRanks(Consumer<RankSyncResponse> onSuccess, Consumer<Exception> onError) {
-        // Check rate limit and record atomically to prevent TOCTOU race
-        synchronized (recentRequestTimes) {
-            if (!checkRateLimit()) {
-                log.warn("Rate limit exceeded - skipping rank sync");
-                onError.accept(new Exception("Rate limit exceeded"));
-                return;
-            }
-            recordRequest();
-        }
-
-        // Collect ranks on client thread
-        clientThread.invoke(() -> {
+    private void syncRanks(boolean refreshRoster, Consumer<RankSyncResponse> onSuccess, Consumer<Exception> onError) {
+        CompletableFuture<RosterSnapshot> snapshot = refreshRoster ? clanRoster.refresh() : clanRoster.getSnapshot();
+        snapshot.thenAcceptAsync(roster -> {
             try {
-                List<RankSyncRequest.RankUpdate> updates = collectRankUpdates();
+                Map<String, String> ranks = collectRoster(roster);
 
-                if (updates.isEmpty()) {
+                if (ranks.isEmpty()) {
                     log.debug("No rank updates to sync");
                     return;
                 }
 
-                log.info("Collected {} rank updates, sending to backend", updates.size());
-
-                // Send to backend via executor (off client thread)
-                executor.submit(() -> sendRankUpdates(updates, onSuccess, onError));
-
+                log.debug("Collected {} member ranks", ranks.size());
+                sendRoster(ranks, onSuccess, onError);
             } catch (Exception e) {
                 log.error("Error collecting rank updates", e);
                 onError.accept(e);
             }
+        }, executor).exceptionally(e -> {
+            log.error("Error collecting rank updates", e);
+            onError.accept(e instanceof Exception ? (Exception) e : new Exception(e));
+            return null;
         });
     }
 
     /**
-     * Collect rank updates from in-game clan roster.
-     * MUST be called on client thread.
-     * <p>
-     * Uses ClanSettings.getMembers() to get ALL clan members (including offline),
-     * not just online members from ClanChannel.
+     * Map the roster snapshot to normalized name -> canonical backend rank.
+     * Members whose rank has no title are skipped.
      */
-    private List<RankSyncRequest.RankUpdate> collectRankUpdates() {
-        List<RankSyncRequest.RankUpdate> updates = new ArrayList<>();
-
-        ClanSettings clanSettings = client.getClanSettings();
-        if (clanSettings == null) {
-            log.debug("Clan settings not loaded - cannot collect ranks");
-            return updates;
+    private Map<String, String> collectRoster(RosterSnapshot snapshot) {
+        Map<String, String> roster = new LinkedHashMap<>(snapshot.size() * 2);
+        if (snapshot.isEmpty()) {
+            return roster;
         }
 
-        log.debug("[RankSync] Collecting ranks from clan: {}", clanSettings.getName());
-
-        // Use ClanSettings.getMembers() to get ALL members (including offline)
-        // This is what WOM does - it syncs the entire clan roster, not just online members
-        List<net.runelite.api.clan.ClanMember> allMembers = clanSettings.getMembers();
-
-        log.debug("[RankSync] Total clan members: {}", allMembers.size());
+        log.debug("[RankSync] Collecting ranks from clan: {} ({} members)", snapshot.getClanName(), snapshot.size());
 
+        // Titles are shared per rank in the snapshot, so each is normalized once
+        Map<String, String> canonicalByTitle = new HashMap<>();
         // Track rank distribution for logging
         Map<String, Integer> rankCounts = new HashMap<>();
 
-        for (net.runelite.api.clan.ClanMember member : allMembers) {
-            String rsn = member.getName();
-
-            // Skip bot accounts (names starting with [#)
-            if (rsn.startsWith("[#")) {
-                log.debug("[RankSync] Skipping bot account: {}", rsn);
+        for (int i = 0; i < snapshot.size(); i++) {
+            String title = snapshot.getTitle(i);
+            if (title == null) {
+                log.debug("[RankSync] Skipping {} - no title for rank value {}", snapshot.getName(i), snapshot.getRank(i));
                 continue;
             }
 
-            // Normalize RSN to Jagex format (spaces to underscores)
-            // This matches WOM's approach and ensures consistent formatting
-            String normalizedRsn = Text.toJagexName(rsn);
-
-            ClanRank rank = member.getRank();
-            int rankValue = rank.getRank();
-
-            // Normalize rank to canonical backend value
-            String canonicalRank = normalizeRank(rankValue, rank, clanSettings);
-
-            if (canonicalRank != null) {
-                updates.add(new RankSyncRequest.RankUpdate(normalizedRsn, canonicalRank));
-                rankCounts.put(canonicalRank, rankCounts.getOrDefault(canonicalRank, 0) + 1);
-            } else {
-                log.debug("[RankSync] Skipping {} - unknown rank value {}", normalizedRsn, rankValue);
-            }
+            String canonicalRank = canonicalByTitle.computeIfAbsent(title, ClanRankSyncService::normalizeRank);
+            roster.put(snapshot.getName(i), canonicalRank);
+            rankCounts.merge(canonicalRank, 1, Integer::sum);
         }
 
         // Log rank distribution at debug level only
         log.debug("[RankSync] Rank distribution: {}", rankCounts);
 
-        return updates;
+        return roster;
     }
 
     /**
-     * Normalize a rank to canonical backend format using the clan title name.
+     * Normalize a clan title to canonical backend rank format.
      */
-    private String normalizeRank(int rankValue, ClanRank rank, ClanSettings clanSettings) {
-        ClanTitle title = clanSettings.titleForRank(rank);
-        if (title != null && title.getName() != null && !title.getName().isEmpty()) {
-            return title.getName().toLowerCase().replace("_", " ");
-        }
-        log.debug("[RankSync] No title found for rank value {}", rankValue);
-        return null;
+    private static String normalizeRank(String title) {
+        return title.toLowerCase().replace("_", " ");
     }
 
     /**
-     * Send rank updates to backend.
-     * Handles batching if needed.
+     * Send only what changed since the last acknowledged sync, or the full roster when
+     * there is no usable base or the delta would need batching.
      */
-    private void sendRankUpdates(List<RankSyncRequest.RankUpdate> updates,
-                                 Consumer<RankSyncResponse> onSuccess,
-                                 Consumer<Exception> onError) {
+    private void sendRoster(Map<String, String> roster,
+                            Consumer<RankSyncResponse> onSuccess,
+                            Consumer<Exception> onError) {
+        RankSyncDigest.Delta delta = rankDigest.diff(roster);
+        if (delta != null && delta.isEmpty()) {
+            log.debug("[RankSync] Roster unchanged since version {}, nothing to send", delta.getBaseVersion());
+            RankSyncResponse unchanged = new RankSyncResponse();
+            unchanged.setSuccess(true);
+            unchanged.setUnchanged(roster.size());
+            unchanged.setVersion(delta.getBaseVersion());
+            onSuccess.accept(unchanged);
+            return;
+        }
 
-        // Batch if needed
-        if (updates.size() > MAX_BATCH_SIZE) {
-            int totalBatches = (updates.size() + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE;
-            log.info("Batching {} updates into {} chunks of {}", updates.size(), totalBatches, MAX_BATCH_SIZE);
+        // Only requests that are actually sent count towards the rate limit
+        if (!rateLimiter.tryAcquire()) {
+            log.warn("Rate limit exceeded - skipping rank sync");
+            onError.accept(new Exception("Rate limit exceeded"));
+            return;
+        }
 
-            for (int i = 0; i < updates.size(); i += MAX_BATCH_SIZE) {
-                int batchIndex = i / MAX_BATCH_SIZE;
-                int end = Math.min(i + MAX_BATCH_SIZE, updates.size());
-                List<RankSyncRequest.RankUpdate> batch = new ArrayList<>(updates.subList(i, end));
-
-                // Schedule each batch with a staggered delay to avoid rate limiting
-                // without blocking the shared executor thread
-                executor.schedule(() -> {
-                    log.info("Sending batch {}/{}", batchIndex + 1, totalBatches);
-                    sendBatch(batch, onSuccess, onError);
-                }, (long) batchIndex * 1000, TimeUnit.MILLISECONDS);
-            }
-        } else {
-            sendBatch(updates, onSuccess, onError);
+        if (delta == null) {
+            log.info("[RankSync] No acknowledged roster version, sending full roster ({} members)", roster.size());
+            sendFull(roster, onSuccess, onError);
+            return;
         }
+
+        if (delta.size() > MAX_BATCH_SIZE) {
+            log.info("[RankSync] {} changes since version {}, sending full roster instead", delta.size(), delta.getBaseVersion());
+            sendFull(roster, onSuccess, onError);
+            return;
+        }
+
+        sendDelta(roster, delta, onSuccess, onError);
     }
 
-    /**
-     * Send a single batch to backend.
-     */
-    private void sendBatch(List<RankSyncRequest.RankUpdate> updates,
+    private void sendDelta(Map<String, String> roster,
+                           RankSyncDigest.Delta delta,
                            Consumer<RankSyncResponse> onSuccess,
                            Consumer<Exception> onError) {
+        List<RankSyncRequest.RankUpdate> updates = new ArrayList<>(delta.getChanged().size());
+        for (String rsn : delta.getChanged()) {
+            updates.add(new RankSyncRequest.RankUpdate(rsn, roster.get(rsn)));
+        }
+
+        RankSyncRequest request = newRequest(RankSyncRequest.MODE_DELTA, updates);
+        request.setBaseVersion(delta.getBaseVersion());
+        request.setRemoved(new ArrayList<>(delta.getRemoved()));
+
+        log.info("[RankSync] Sending delta: {} changed, {} removed (base version {})",
+                delta.getChanged().size(), delta.getRemoved().size(), delta.getBaseVersion());
+
+        sendBatch(request,
+                response -> {
+                    rankDigest.commit(acknowledged(roster, delta.getChanged(), response), response.getVersion());
+                    onSuccess.accept(response);
+                },
+                error -> {
+                    if (error instanceof VersionConflictException) {
+                        log.info("[RankSync] Backend roster is no longer at version {}, falling back to full sync",
+                                delta.getBaseVersion());
+                        rankDigest.invalidate();
+                        sendFull(roster, onSuccess, onError);
+                    } else {
+                        onError.accept(error);
+                    }
+                });
+    }
+
+    /**
+     * Send the whole roster, batching if needed. The batch results are merged and
+     * delivered once, and the digest is committed once every batch has been acknowledged.
+     */
+    private void sendFull(Map<String, String> roster,
+                          Consumer<RankSyncResponse> onSuccess,
+                          Consumer<Exception> onError) {
+        List<RankSyncRequest.RankUpdate> updates = new ArrayList<>(roster.size());
+        for (Map.Entry<String, String> entry : roster.entrySet()) {
+            updates.add(new RankSyncRequest.RankUpdate(entry.getKey(), entry.getValue()));
+        }
+        new FullSync(roster, updates, onSuccess, onError).start();
+    }
+
+    /**
+     * The part of the roster the backend actually took: rows it rejected in {@code errors}
+     * or returned in {@code notFound} must be resent, so they do not count as acknowledged.
+     *
+     * @param sent names in the order they were sent, to resolve error row indices
+     */
+    private static Map<String, String> acknowledged(Map<String, String> roster, List<String> sent,
+                                                    RankSyncResponse response) {
+        boolean hasErrors = response.getErrors() != null && !response.getErrors().isEmpty();
+        boolean hasNotFound = response.getNotFound() != null && !response.getNotFound().isEmpty();
+        if (!hasErrors && !hasNotFound) {
+            return roster;
+        }
 
+        Map<String, String> acknowledged = new LinkedHashMap<>(roster);
+        if (hasErrors) {
+            for (RankSyncResponse.SyncError error : response.getErrors()) {
+                Integer index = error.getIndex();
+                if (index != null && index >= 0 && index < sent.size()) {
+                    acknowledged.remove(sent.get(index));
+                }
+            }
+        }
+        if (hasNotFound) {
+            for (String rsn : response.getNotFound()) {
+                if (rsn != null) {
+                    acknowledged.remove(Text.toJagexName(rsn));
+                }
+            }
+        }
+        return acknowledged;
+    }
+
+    private static RankSyncRequest newRequest(String mode, List<RankSyncRequest.RankUpdate> updates) {
         RankSyncRequest request = new RankSyncRequest();
+        request.setMode(mode);
         request.setUpdates(updates);
         request.setCreateIfNotFound(true);
+        return request;
+    }
+
+    /**
+     * Send a single request to backend. A 409 (delta base version mismatch) is
+     * reported as {@link VersionConflictException}.
+     */
+    private void sendBatch(RankSyncRequest request,
+                           Consumer<RankSyncResponse> onSuccess,
+                           Consumer<Exception> onError) {
 
         String json = gson.toJson(request);
         RequestBody body = RequestBody.create(ApiConstants.JSON, json);
@@ -297,6 +444,16 @@ public class ClanRankSyncService {
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 try (response) {
+                    if (response.code() == HTTP_CONFLICT && RankSyncRequest.MODE_DELTA.equals(request.getMode())) {
+                        onError.accept(new VersionConflictException());
+                        return;
+                    }
+
+                    if (response.code() == HTTP_TOO_MANY_REQUESTS) {
+                        onError.accept(new RateLimitedException(retryAfterMs(response)));
+                        return;
+                    }
+
                     if (!response.isSuccessful()) {
                         String errorBody = response.body() != null ? response.body().string() : "no body";
                         log.warn("Rank sync returned HTTP {}: {}", response.code(), errorBody);
@@ -355,22 +512,174 @@ public class ClanRankSyncService {
     }
 
     /**
-     * Check if we're within rate limits.
+     * Retry-After in milliseconds (seconds form only), or the default backoff.
      */
-    private boolean checkRateLimit() {
-        long now = System.currentTimeMillis();
+    private static long retryAfterMs(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form; fall through to the default
+            }
+        }
+        return RATE_LIMITED_BACKOFF_MS;
+    }
+
+    /**
+     * One full sync: dispatches its batches with an AIMD concurrency limit, retries
+     * batches the backend rate-limited, and merges the batch results into one
+     * {@link RankSyncResponse} delivered once. All state is guarded by {@code this}.
+     */
+    private final class FullSync {
+        private final Map<String, String> roster;
+        private final Consumer<RankSyncResponse> onSuccess;
+        private final Consumer<Exception> onError;
+        private final Deque<Batch> pending = new ArrayDeque<>();
+        private final int totalBatches;
+        private final RankSyncResponse aggregate = new RankSyncResponse();
+        private double concurrency = INITIAL_BATCH_CONCURRENCY;
+        private int inFlight;
+        private int remaining;
+        private boolean finished;
+
+        FullSync(Map<String, String> roster,
+                 List<RankSyncRequest.RankUpdate> updates,
+                 Consumer<RankSyncResponse> onSuccess,
+                 Consumer<Exception> onError) {
+            this.roster = roster;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+            for (int i = 0; i < updates.size(); i += MAX_BATCH_SIZE) {
+                int end = Math.min(i + MAX_BATCH_SIZE, updates.size());
+                pending.add(new Batch(pending.size() + 1, i, new ArrayList<>(updates.subList(i, end))));
+            }
+            this.totalBatches = pending.size();
+            this.remaining = totalBatches;
+            aggregate.setSuccess(true);
+        }
+
+        void start() {
+            if (totalBatches > 1) {
+                log.info("Batching {} updates into {} chunks of {}", roster.size(), totalBatches, MAX_BATCH_SIZE);
+            }
+            dispatch();
+        }
 
-        // Remove old requests outside the window
-        recentRequestTimes.removeIf(time -> now - time > RATE_LIMIT_WINDOW_MS);
+        private void dispatch() {
+            List<Batch> toSend = new ArrayList<>();
+            synchronized (this) {
+                while (!finished && inFlight < (int) concurrency && !pending.isEmpty()) {
+                    toSend.add(pending.poll());
+                    inFlight++;
+                }
+            }
+            for (Batch batch : toSend) {
+                send(batch);
+            }
+        }
+
+        private void send(Batch batch) {
+            if (totalBatches > 1) {
+                log.info("Sending batch {}/{}", batch.number, totalBatches);
+            }
+            long startedAt = System.nanoTime();
+            sendBatch(newRequest(RankSyncRequest.MODE_FULL, batch.updates),
+                    response -> onBatchDone(batch, response, System.nanoTime() - startedAt),
+                    error -> onBatchFailed(batch, error));
+        }
+
+        private void onBatchDone(Batch batch, RankSyncResponse response, long latencyNanos) {
+            boolean complete;
+            synchronized (this) {
+                inFlight--;
+                if (finished) {
+                    return;
+                }
+                if (TimeUnit.NANOSECONDS.toMillis(latencyNanos) > SLOW_BATCH_MS) {
+                    concurrency = Math.max(1, concurrency / 2);
+                } else {
+                    concurrency = Math.min(MAX_BATCH_CONCURRENCY, concurrency + 1 / concurrency);
+                }
+                aggregate.add(response, batch.offset);
+                complete = --remaining == 0;
+                finished = complete;
+            }
 
-        // Check if we can make another request
-        return recentRequestTimes.size() < RATE_LIMIT_REQUESTS;
+            if (!complete) {
+                dispatch();
+                return;
+            }
+            // Aggregate error indices already point into the whole roster, in update order
+            rankDigest.commit(acknowledged(roster, new ArrayList<>(roster.keySet()), aggregate), aggregate.getVersion());
+            onSuccess.accept(aggregate);
+        }
+
+        private void onBatchFailed(Batch batch, Exception error) {
+            boolean retry = error instanceof RateLimitedException && batch.attempts < MAX_BATCH_ATTEMPTS;
+            int newConcurrency;
+            synchronized (this) {
+                inFlight--;
+                if (finished) {
+                    return;
+                }
+                if (!retry) {
+                    finished = true;
+                } else {
+                    concurrency = Math.max(1, concurrency / 2);
+                    batch.attempts++;
+                }
+                newConcurrency = (int) concurrency;
+            }
+
+            if (!retry) {
+                onError.accept(error);
+                return;
+            }
+            long delay = ((RateLimitedException) error).retryAfterMs;
+            log.info("[RankSync] Batch {}/{} rate limited, retrying in {} ms (concurrency now {})",
+                    batch.number, totalBatches, delay, newConcurrency);
+            executor.schedule(() -> {
+                synchronized (this) {
+                    pending.addFirst(batch);
+                }
+                dispatch();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final class Batch {
+        private final int number;
+        // Position of the batch's first update in the whole roster
+        private final int offset;
+        private final List<RankSyncRequest.RankUpdate> updates;
+        private int attempts = 1;
+
+        Batch(int number, int offset, List<RankSyncRequest.RankUpdate> updates) {
+            this.number = number;
+            this.offset = offset;
+            this.updates = updates;
+        }
+    }
+
+    /**
+     * The backend answered HTTP 429.
+     */
+    private static final class RateLimitedException extends IOException {
+        private final long retryAfterMs;
+
+        RateLimitedException(long retryAfterMs) {
+            super("Rank sync rate limited by backend");
+            this.retryAfterMs = retryAfterMs;
+        }
     }
 
     /**
-     * Record a request for rate limiting.
+     * The backend's roster is no longer at the delta's base version.
      */
-    private void recordRequest() {
-        recentRequestTimes.add(System.currentTimeMillis());
+    private static final class VersionConflictException extends IOException {
+        VersionConflictException() {
+            super("Rank sync base version mismatch");
+        }
     }
 }
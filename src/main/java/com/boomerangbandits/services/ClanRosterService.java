@@ -0,0 +1,202 @@
+package com.boomerangbandits.services;
+
+import com.boomerangbandits.util.ClientThreadTaskRunner;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.clan.ClanMember;
+import net.runelite.api.clan.ClanSettings;
+import net.runelite.client.callback.ClientThread;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Owns the shared {@link RosterSnapshot}.
+ * <p>
+ * RuneLite has no clan settings event, so a new ClanSettings instance (checked every
+ * tick) counts as a roster change, as do clan members joining or leaving. Every
+ * {@link #ROSTER_CHECK_TICKS} ticks the roster is also sampled: a changed member count
+ * or a changed checksum of member ranks (promotions and demotions are applied to
+ * ClanSettings in place, with no event) counts as a change too. A change
+ * marks the snapshot stale and notifies listeners. The next {@link #getSnapshot()}
+ * rebuilds it once, and every consumer reads the same copy until the next change.
+ * Builds are sliced across client frames by {@link ClientThreadTaskRunner}, and
+ * concurrent requests share the build in progress.
+ * <p>
+ * In-place rank changes are therefore seen within one sample interval; consumers that
+ * must see them immediately (admin-triggered syncs) use {@link #refresh()}.
+ */
+@Slf4j
+@Singleton
+public class ClanRosterService {
+
+    // ClanSettings#getMembers copies the roster, so it is sampled less often
+    private static final int ROSTER_CHECK_TICKS = 50;
+
+    @Inject
+    private Client client;
+    @Inject
+    private ClientThread clientThread;
+    @Inject
+    private ClientThreadTaskRunner taskRunner;
+
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile RosterSnapshot snapshot = RosterSnapshot.EMPTY;
+
+    // Client thread only
+    private boolean stale = true;
+    private CompletableFuture<RosterSnapshot> building;
+    private ClanSettings lastClanSettings;
+    private int lastMemberCount = -1;
+    private int lastRankChecksum;
+    private int ticksSinceRosterCheck;
+
+    /**
+     * Register a callback run on the client thread whenever the roster may have changed.
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Call from onGameTick.
+     */
+    public void onGameTick() {
+        ClanSettings clanSettings = client.getClanSettings();
+        if (clanSettings == null) {
+            return;
+        }
+
+        boolean changed = clanSettings != lastClanSettings;
+        if (changed || ++ticksSinceRosterCheck >= ROSTER_CHECK_TICKS) {
+            ticksSinceRosterCheck = 0;
+            List<ClanMember> members = clanSettings.getMembers();
+            int rankChecksum = rankChecksum(members);
+            changed |= members.size() != lastMemberCount || rankChecksum != lastRankChecksum;
+            lastMemberCount = members.size();
+            lastRankChecksum = rankChecksum;
+        }
+        lastClanSettings = clanSettings;
+
+        if (changed) {
+            markChanged();
+        }
+    }
+
+    /**
+     * Order-independent checksum of (name, rank id) pairs, so a promotion or demotion
+     * changes it even when the member count does not.
+     */
+    private static int rankChecksum(List<ClanMember> members) {
+        int checksum = 0;
+        for (ClanMember member : members) {
+            String name = member.getName();
+            int nameHash = name != null ? name.hashCode() : 0;
+            checksum += (nameHash * 31 + member.getRank().getRank()) * 0x9E3779B1;
+        }
+        return checksum;
+    }
+
+    /**
+     * A clan member joined or left, or something else suggests the roster moved.
+     * MUST be called on the client thread.
+     */
+    public void markChanged() {
+        stale = true;
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * The current roster, rebuilt only if a change was signalled since the last build.
+     * Safe to call from any thread; completes on the client thread.
+     *
+     * @return the snapshot, or {@link RosterSnapshot#EMPTY} if clan settings are not loaded
+     */
+    public CompletableFuture<RosterSnapshot> getSnapshot() {
+        return load(false);
+    }
+
+    /**
+     * Rebuild the snapshot unconditionally. Safe to call from any thread; completes on
+     * the client thread.
+     */
+    public CompletableFuture<RosterSnapshot> refresh() {
+        return load(true);
+    }
+
+    private CompletableFuture<RosterSnapshot> load(boolean force) {
+        CompletableFuture<RosterSnapshot> result = new CompletableFuture<>();
+        clientThread.invokeLater(() -> {
+            if (building != null) {
+                // A build started now reflects the latest roster; share it
+                forward(building, result);
+                return;
+            }
+            if (!force && !stale) {
+                result.complete(snapshot);
+                return;
+            }
+
+            ClanSettings clanSettings = client.getClanSettings();
+            if (clanSettings == null) {
+                log.debug("Clan settings not loaded - roster unavailable");
+                result.complete(RosterSnapshot.EMPTY);
+                return;
+            }
+
+            // A change signalled while building marks it stale again for the next read
+            stale = false;
+            CompletableFuture<RosterSnapshot> build = taskRunner.submit(new RosterSnapshot.Builder(clanSettings));
+            building = build;
+            build.whenComplete((built, error) -> {
+                if (building == build) {
+                    building = null;
+                }
+                if (error != null) {
+                    stale = true;
+                    return;
+                }
+                snapshot = built;
+                log.debug("[Roster] Snapshot rebuilt: {} members of {}", built.size(), built.getClanName());
+            });
+            forward(build, result);
+        });
+        return result;
+    }
+
+    private static <T> void forward(CompletableFuture<T> from, CompletableFuture<T> to) {
+        from.whenComplete((value, error) -> {
+            if (error != null) {
+                to.completeExceptionally(error);
+            } else {
+                to.complete(value);
+            }
+        });
+    }
+
+    /**
+     * Forget the roster, e.g. on logout.
+     */
+    public void reset() {
+        if (building != null) {
+            building.cancel(false);
+            building = null;
+        }
+        snapshot = RosterSnapshot.EMPTY;
+        stale = true;
+        lastClanSettings = null;
+        lastMemberCount = -1;
+        lastRankChecksum = 0;
+        ticksSinceRosterCheck = 0;
+    }
+}
@@ -1,35 +1,33 @@
 package com.boomerangbandits.services;
 
+import com.boomerangbandits.events.CofferDeposited;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.api.ChatMessageType;
-import net.runelite.api.events.ChatMessage;
 import net.runelite.client.audio.AudioPlayer;
 import net.runelite.client.eventbus.Subscribe;
 
 import javax.inject.Inject;
-import java.util.regex.Pattern;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
- * Listens for clan chat coffer deposit messages and plays a sound effect.
+ * Plays a sound effect when a clan member deposits into the coffer.
  *
- * <p>Matches messages of the form:
- * "{RSN} has deposited {amount} coins into the coffer."
+ * <p>Deposit messages ("{RSN} has deposited {amount} coins into the coffer.") are
+ * recognised by {@link ChatClassificationService}, which posts {@link CofferDeposited}.
  *
  * <p>Sound playback delegates to {@link AudioPlayer} (RuneLite's approved audio API).
+ * The WAV is read from the classpath once by {@link #preload()} and played from memory.
+ * Deposits arriving within one clip length of the last sound are merged into it, so a
+ * burst of deposits plays a single sound and at most one clip is open at a time.
  */
 @Slf4j
 public class CofferDepositSoundService {
 
-    /**
-     * Matches clan chat coffer deposit messages.
-     * Examples:
-     * "Zezima has deposited 1,000,000 coins into the coffer."
-     * "Some Player has deposited 500 coins into the coffer."
-     */
-    private static final Pattern COFFER_DEPOSIT_PATTERN = Pattern.compile(
-            ".+ has deposited [\\d,]+ coins into the coffer\\.",
-            Pattern.CASE_INSENSITIVE
-    );
+    private static final String SOUND_PATH = "/com/boomerangbandits/coffer-deposit.wav";
+    // Used when the WAV header cannot be read
+    private static final long FALLBACK_CLIP_MS = 2_000;
 
     @Inject
     private AudioPlayer audioPlayer;
@@ -37,30 +35,28 @@ public class CofferDepositSoundService {
     @Inject
     private FeatureFlagService featureFlagService;
 
+    private byte[] soundData;
+    private long mergeWindowMs = FALLBACK_CLIP_MS;
+    private long lastPlayedAt;
+    private int mergedDeposits;
+
     @Subscribe
-    public void onChatMessage(ChatMessage event) {
+    public void onCofferDeposited(CofferDeposited event) {
         if (!featureFlagService.isCofferSoundEnabled()) {
             return;
         }
 
-        // Only listen to clan chat messages
-        if (event.getType() != ChatMessageType.CLAN_MESSAGE
-                && event.getType() != ChatMessageType.FRIENDSCHAT) {
-            return;
-        }
-
-        String message = event.getMessage();
-        if (message == null) {
+        long now = System.currentTimeMillis();
+        if (now - lastPlayedAt < mergeWindowMs) {
+            mergedDeposits++;
             return;
         }
-
-        // Strip any HTML tags RuneLite may inject (e.g. <col=...>text</col>)
-        String stripped = message.replaceAll("<[^>]*>", "").trim();
-
-        if (COFFER_DEPOSIT_PATTERN.matcher(stripped).matches()) {
-            log.debug("Coffer deposit detected: {}", stripped);
-            playDepositSound();
+        if (mergedDeposits > 0) {
+            log.debug("Merged {} coffer deposits into the previous sound", mergedDeposits);
+            mergedDeposits = 0;
         }
+        lastPlayedAt = now;
+        playDepositSound();
     }
 
     // ======================================================================
@@ -68,13 +64,80 @@ public class CofferDepositSoundService {
     // ======================================================================
 
     /**
-     * Plays the bundled coffer-deposit.wav via RuneLite's AudioPlayer.
+     * Read the bundled coffer-deposit.wav into memory and size the merge window to
+     * its duration. Safe to call more than once.
+     */
+    public void preload() {
+        if (soundData != null) {
+            return;
+        }
+
+        try (InputStream in = getClass().getResourceAsStream(SOUND_PATH)) {
+            if (in == null) {
+                log.warn("Coffer deposit sound not found at {}", SOUND_PATH);
+                return;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(96 * 1024);
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            soundData = out.toByteArray();
+        } catch (IOException e) {
+            log.warn("Could not load coffer deposit sound", e);
+            return;
+        }
+
+        long clipMs = wavDurationMs(soundData);
+        mergeWindowMs = clipMs > 0 ? clipMs : FALLBACK_CLIP_MS;
+        log.debug("Coffer deposit sound loaded ({} bytes, {} ms)", soundData.length, mergeWindowMs);
+    }
+
+    /**
+     * Plays the preloaded coffer-deposit.wav via RuneLite's AudioPlayer.
      */
     private void playDepositSound() {
+        preload();
+        if (soundData == null) {
+            return;
+        }
         try {
-            audioPlayer.play(getClass(), "/com/boomerangbandits/coffer-deposit.wav", 0f);
+            audioPlayer.play(new ByteArrayInputStream(soundData), 0f);
         } catch (Exception e) {
             log.warn("Could not play coffer deposit sound", e);
         }
     }
+
+    /**
+     * Duration of a PCM RIFF/WAVE file from its fmt byte rate and data chunk size.
+     *
+     * @return duration in milliseconds, or -1 if the header is not understood
+     */
+    private static long wavDurationMs(byte[] wav) {
+        if (wav.length < 12 || wav[0] != 'R' || wav[1] != 'I' || wav[2] != 'F' || wav[3] != 'F') {
+            return -1;
+        }
+
+        long byteRate = -1;
+        int pos = 12;
+        while (pos + 8 <= wav.length) {
+            int size = readIntLE(wav, pos + 4);
+            if (size < 0) {
+                return -1;
+            }
+            if (wav[pos] == 'f' && wav[pos + 1] == 'm' && wav[pos + 2] == 't' && pos + 20 <= wav.length) {
+                byteRate = readIntLE(wav, pos + 16) & 0xFFFFFFFFL;
+            } else if (wav[pos] == 'd' && wav[pos + 1] == 'a' && wav[pos + 2] == 't' && wav[pos + 3] == 'a') {
+                return byteRate > 0 ? (size & 0xFFFFFFFFL) * 1000 / byteRate : -1;
+            }
+            // Chunks are word-aligned
+            pos += 8 + size + (size & 1);
+        }
+        return -1;
+    }
+
+    private static int readIntLE(byte[] b, int off) {
+        return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24;
+    }
 }
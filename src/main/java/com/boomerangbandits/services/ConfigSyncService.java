@@ -15,7 +15,9 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Periodically polls the backend for remote plugin configuration.
@@ -66,6 +68,20 @@ public class ConfigSyncService {
     @Setter
     private volatile Runnable onConfigUpdated;
 
+    /**
+     * Services that precompute lookup structures from the remote config.
+     * Called on the sync thread with the new config, before {@link #onConfigUpdated}.
+     */
+    private final List<Consumer<PluginConfigResponse>> configListeners = new CopyOnWriteArrayList<>();
+
+    public void addConfigListener(Consumer<PluginConfigResponse> listener) {
+        configListeners.add(listener);
+    }
+
+    public void removeConfigListener(Consumer<PluginConfigResponse> listener) {
+        configListeners.remove(listener);
+    }
+
     /**
      * Start periodic config sync. Call only after authentication succeeds.
      *
@@ -153,6 +169,14 @@ public class ConfigSyncService {
 
         log.debug("Config sync applied successfully");
 
+        for (Consumer<PluginConfigResponse> configListener : configListeners) {
+            try {
+                configListener.accept(remoteConfig);
+            } catch (Exception e) {
+                log.warn("Config listener failed", e);
+            }
+        }
+
         // Notify listener for in-memory-only fields (bounties, features, renames)
         Runnable listener = onConfigUpdated;
         if (listener != null) {
@@ -25,9 +25,12 @@ import net.runelite.client.util.Text;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Tracks clan member attendance during an in-game event.
@@ -36,7 +39,20 @@ import java.util.TreeMap;
  * startEvent()  — call when admin starts the event
  * stopEvent()   — call when admin stops; returns the attendance list
  * onGameTick()  — call every game tick while running
- * onPlayerSpawned/Despawned/ClanMemberJoined/Left — forward from plugin
+ * onPlayersChanged — per-tick spawn/despawn batch from PlayerEventBatcher
+ * onClanMemberJoined/Left — forward from plugin
+ * <p>
+ * State is owned by the client thread. Other threads (the admin panel) read the
+ * immutable {@link AttendanceSnapshot} published once per tick via {@link #getSnapshot()}.
+ * <p>
+ * Live counts (present, meets threshold, late) are kept incrementally. Presence
+ * totals are only compiled when an interval closes; a member who is present is
+ * parked in a tick-indexed timing wheel at the tick they will reach the
+ * threshold, so the per-tick cost does not depend on how many members attend.
+ * <p>
+ * Every join/leave transition is mirrored into {@link AttendanceJournal} so a
+ * client crash mid-event can be recovered on the next login via
+ * {@link #recoverFromJournal()}.
  */
 @Slf4j
 @Singleton
@@ -50,14 +66,55 @@ public class EventAttendanceTracker {
      * Seconds after event start before a member is considered "late".
      */
     public static final int DEFAULT_LATE_THRESHOLD_SECONDS = 60 * 5;     // 5 min
+    /**
+     * How many late arrivals the live snapshot lists.
+     */
+    private static final int TOP_LATE_LIMIT = 3;
+    /**
+     * Timing wheel slots (power of two). Deadlines further out wrap around and are
+     * re-checked when their slot comes up.
+     */
+    private static final int WHEEL_SIZE = 1024;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
     // keyed by normalized (Jagex) lowercase name
     private final Map<String, MemberAttendance> buffer = new TreeMap<>();
     @Inject
     private Client client;
     @Inject
     private GameModeGuard gameModeGuard;
+    @Inject
+    private AttendanceJournal journal;
+    @Inject
+    private ClanPresenceIndex presenceIndex;
     @Getter
-    private boolean running = false;
+    private volatile boolean running = false;
+    /**
+     * True while a session rebuilt from the journal is waiting for the admin
+     * to resume, submit or discard it.
+     */
+    @Getter
+    private volatile boolean recovered = false;
+
+    private volatile AttendanceSnapshot snapshot = AttendanceSnapshot.EMPTY;
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    // Latest late arrivals, latest first; the published list is rebuilt only when this changes
+    private final MemberAttendance[] topLate = new MemberAttendance[TOP_LATE_LIMIT];
+    private int topLateCount;
+    private List<AttendanceSnapshot.LateArrival> topLateView = Collections.emptyList();
+    private boolean topLateDirty;
+
+    // Thresholds used for the live counts; the final list uses the ones passed to stopEvent
+    private int presentThresholdTicks = secondsToTicks(DEFAULT_PRESENT_THRESHOLD_SECONDS);
+    private int lateThresholdSeconds = DEFAULT_LATE_THRESHOLD_SECONDS;
+
+    // Live counters, updated as intervals open/close and as the wheel fires
+    private int presentCount;
+    private int meetsThresholdCount;
+    private int lateCount;
+
+    // Heads of intrusive doubly-linked lists of members waiting to cross the threshold
+    private final MemberAttendance[] wheel = new MemberAttendance[WHEEL_SIZE];
+    private int wheelTick;
 
     private int eventStartTick;
     private int eventStopTick;
@@ -70,17 +127,148 @@ public class EventAttendanceTracker {
     // -------------------------------------------------------------------------
 
     public void startEvent() {
+        startEvent(DEFAULT_PRESENT_THRESHOLD_SECONDS, DEFAULT_LATE_THRESHOLD_SECONDS);
+    }
+
+    /**
+     * @param presentThresholdSeconds threshold the live "meets threshold" count is measured against
+     * @param lateThresholdSeconds    arrival delay after which the live view counts a member as late
+     */
+    public void startEvent(int presentThresholdSeconds, int lateThresholdSeconds) {
         if (!gameModeGuard.isStandardWorld()) {
             log.warn("[Attendance] Cannot start event — non-standard world");
             return;
         }
         buffer.clear();
+        recovered = false;
         eventStartTick = client.getTickCount();
         running = true;
         scanDelay = 1;
+        setThresholds(presentThresholdSeconds, lateThresholdSeconds);
+        resetCounters();
+        journal.begin(System.currentTimeMillis());
+        publishSnapshot();
         log.info("[Attendance] Event started at tick {}", eventStartTick);
     }
 
+    /**
+     * Rebuild an event left unfinished by a crash. The tracker is left paused
+     * (not running) until the admin calls {@link #resumeRecoveredEvent(int, int)},
+     * {@link #stopEvent(int, int)} or {@link #discardRecoveredEvent()}.
+     *
+     * @return true if an unfinished session was found and restored
+     */
+    public boolean recoverFromJournal() {
+        if (running || recovered) {
+            return false;
+        }
+        if (!gameModeGuard.isStandardWorld()) {
+            return false;
+        }
+
+        AttendanceJournal.RecoveredSession session = journal.recover();
+        if (session == null) {
+            return false;
+        }
+
+        buffer.clear();
+        String[] names = session.memberNames;
+        MemberAttendance[] byId = new MemberAttendance[names.length];
+
+        // Replay transitions with the same accounting as addPlayer/unpause/compileTicks.
+        // tickActivityStarted holds an elapsed tick during replay.
+        int[] records = session.records;
+        for (int i = 0; i < session.recordCount; i++) {
+            int id = records[i * 3];
+            int tick = records[i * 3 + 1];
+            int type = records[i * 3 + 2];
+            if (id < 0 || id >= names.length) {
+                continue;
+            }
+
+            MemberAttendance ma = byId[id];
+            if (ma == null) {
+                ma = new MemberAttendance(names[id], tick, tick, 0, false);
+                ma.journalId = id;
+                byId[id] = ma;
+                buffer.put(nameToKey(names[id]), ma);
+            }
+
+            if (type == AttendanceJournal.JOIN && !ma.isPresent) {
+                ma.isPresent = true;
+                ma.tickActivityStarted = tick;
+            } else if (type == AttendanceJournal.LEAVE && ma.isPresent) {
+                ma.ticksTotal += tick - ma.tickActivityStarted;
+                ma.isPresent = false;
+            }
+        }
+
+        // Close intervals still open at the last journaled tick; the crash gap is not counted
+        int lastTick = session.lastElapsedTick;
+        for (MemberAttendance ma : byId) {
+            if (ma != null && ma.isPresent) {
+                ma.ticksTotal += Math.max(0, lastTick - ma.tickActivityStarted);
+                ma.isPresent = false;
+                journal.append(ma.journalId, lastTick, AttendanceJournal.LEAVE);
+            }
+        }
+
+        eventStartTick = client.getTickCount() - lastTick;
+        eventStopTick = eventStartTick + lastTick;
+        recovered = true;
+        recountAll();
+        publishSnapshot();
+
+        log.info("[Attendance] Recovered unfinished event: {} members, {}s elapsed",
+                buffer.size(), ticksToSeconds(lastTick));
+        return true;
+    }
+
+    /**
+     * Continue a recovered event as if it had never stopped (minus the crash gap).
+     */
+    public void resumeRecoveredEvent(int presentThresholdSeconds, int lateThresholdSeconds) {
+        if (!recovered) {
+            return;
+        }
+        setThresholds(presentThresholdSeconds, lateThresholdSeconds);
+        int elapsed = eventStopTick - eventStartTick;
+        eventStartTick = client.getTickCount() - elapsed;
+        recovered = false;
+        running = true;
+        scanDelay = 1;
+        // Thresholds may differ from the defaults used when the journal was replayed
+        recountAll();
+        publishSnapshot();
+        log.info("[Attendance] Resumed recovered event at {}s", ticksToSeconds(elapsed));
+    }
+
+    /**
+     * Drop a recovered event without submitting it.
+     */
+    public void discardRecoveredEvent() {
+        if (!recovered) {
+            return;
+        }
+        recovered = false;
+        buffer.clear();
+        resetCounters();
+        journal.finish();
+        publishSnapshot();
+        log.info("[Attendance] Discarded recovered event");
+    }
+
+    /**
+     * Release the journal mapping. An event still running is left unfinished
+     * in the journal so it can be recovered on the next login.
+     */
+    public void shutDown() {
+        running = false;
+        recovered = false;
+        journal.close();
+        snapshot = AttendanceSnapshot.EMPTY;
+    }
+
     /**
      * Stop the event and return the structured attendance list.
      *
@@ -89,11 +277,16 @@ public class EventAttendanceTracker {
      */
     public List<AttendanceEntry> stopEvent(int presentThresholdSeconds, int lateThresholdSeconds) {
         // Compile any still-present members
-        for (String key : buffer.keySet()) {
-            compileTicks(key);
+        for (MemberAttendance ma : buffer.values()) {
+            compileTicks(ma);
+        }
+        if (running) {
+            eventStopTick = client.getTickCount();
         }
-        eventStopTick = client.getTickCount();
         running = false;
+        recovered = false;
+        journal.finish();
+        publishSnapshot();
 
         List<AttendanceEntry> entries = new ArrayList<>(buffer.size());
         for (MemberAttendance ma : buffer.values()) {
@@ -129,7 +322,14 @@ public class EventAttendanceTracker {
     }
 
     public int getMemberCount() {
-        return buffer.size();
+        return snapshot.getMemberCount();
+    }
+
+    /**
+     * Latest published state. Safe to call from any thread.
+     */
+    public AttendanceSnapshot getSnapshot() {
+        return snapshot;
     }
 
     // -------------------------------------------------------------------------
@@ -156,39 +356,39 @@ public class EventAttendanceTracker {
             --scanDelay;
         }
 
-        // Accumulate ticks for all tracked members
-        for (String key : buffer.keySet()) {
-            compileTicks(key);
-        }
-    }
+        int now = client.getTickCount();
+        advanceWheel(now);
 
-    public void onPlayerSpawned(Player player) {
-        if (!running) return;
-        if (!isClanMember(player)) return;
-        addPlayer(player);
-        unpausePlayer(player.getName());
+        journal.heartbeat(now - eventStartTick);
+        publishSnapshot();
     }
 
-    public void onPlayerDespawned(Player player) {
+    /**
+     * Net spawns/despawns for one tick, already deduplicated by {@link PlayerEventBatcher}.
+     */
+    public void onPlayersChanged(List<Player> spawned, List<Player> despawned) {
         if (!running) return;
-        String key = nameToKey(player.getName());
-        if (!buffer.containsKey(key)) return;
-        compileTicks(player.getName());
-        pausePlayer(player.getName());
+
+        for (int i = 0; i < despawned.size(); i++) {
+            pausePlayer(despawned.get(i).getName());
+        }
+
+        for (int i = 0; i < spawned.size(); i++) {
+            Player player = spawned.get(i);
+            if (!isClanMember(player)) continue;
+            addPlayer(player);
+            unpausePlayer(player.getName());
+        }
     }
 
     public void onClanMemberJoined(ClanChannelMember member) {
         if (!running) return;
         if (member.getWorld() != client.getWorld()) return;
 
-        String memberName = member.getName();
-        for (Player player : client.getTopLevelWorldView().players()) {
-            if (player == null) continue;
-            if (nameToKey(memberName).equals(nameToKey(player.getName()))) {
-                addPlayer(player);
-                unpausePlayer(player.getName());
-                break;
-            }
+        Player player = presenceIndex.getVisiblePlayer(member.getName());
+        if (player != null) {
+            addPlayer(player);
+            unpausePlayer(player.getName());
         }
     }
 
@@ -196,9 +396,6 @@ public class EventAttendanceTracker {
         if (!running) return;
         if (member.getWorld() != client.getWorld()) return;
 
-        String key = nameToKey(member.getName());
-        if (!buffer.containsKey(key)) return;
-        compileTicks(member.getName());
         pausePlayer(member.getName());
     }
 
@@ -206,6 +403,166 @@ public class EventAttendanceTracker {
         scanDelay = 1;
     }
 
+    // -------------------------------------------------------------------------
+    // Snapshot publication
+    // -------------------------------------------------------------------------
+
+    /**
+     * Publish a fresh snapshot from the live counters. O(1) apart from rebuilding
+     * the late-arrivals list when it changed.
+     */
+    private void publishSnapshot() {
+        if (topLateDirty) {
+            topLateDirty = false;
+            List<AttendanceSnapshot.LateArrival> lateArrivals = new ArrayList<>(topLateCount);
+            for (int i = 0; i < topLateCount; i++) {
+                lateArrivals.add(new AttendanceSnapshot.LateArrival(
+                        topLate[i].playerName, ticksToSeconds(topLate[i].ticksLate)));
+            }
+            topLateView = Collections.unmodifiableList(lateArrivals);
+        }
+
+        snapshot = new AttendanceSnapshot(
+                snapshotVersion.incrementAndGet(),
+                running,
+                recovered,
+                getEventDurationSeconds(),
+                buffer.size(),
+                presentCount,
+                meetsThresholdCount,
+                lateCount,
+                topLateView
+        );
+    }
+
+    /**
+     * Insert into the latest-first topLate array, dropping the earliest when full.
+     */
+    private void insertLate(MemberAttendance ma) {
+        int pos = topLateCount;
+        while (pos > 0 && topLate[pos - 1].ticksLate < ma.ticksLate) {
+            pos--;
+        }
+        if (pos >= TOP_LATE_LIMIT) {
+            return;
+        }
+        int last = Math.min(topLateCount, TOP_LATE_LIMIT - 1);
+        for (int i = last; i > pos; i--) {
+            topLate[i] = topLate[i - 1];
+        }
+        topLate[pos] = ma;
+        topLateCount = Math.min(topLateCount + 1, TOP_LATE_LIMIT);
+        topLateDirty = true;
+    }
+
+    // -------------------------------------------------------------------------
+    // Live counters and threshold timing wheel
+    // -------------------------------------------------------------------------
+
+    private void setThresholds(int presentThresholdSeconds, int lateThresholdSeconds) {
+        this.presentThresholdTicks = secondsToTicks(presentThresholdSeconds);
+        this.lateThresholdSeconds = lateThresholdSeconds;
+    }
+
+    private void resetCounters() {
+        presentCount = 0;
+        meetsThresholdCount = 0;
+        lateCount = 0;
+        Arrays.fill(topLate, null);
+        topLateCount = 0;
+        topLateDirty = true;
+        Arrays.fill(wheel, null);
+        wheelTick = client.getTickCount();
+    }
+
+    /**
+     * Recompute every counter from scratch. Only used when the tracker is rebuilt
+     * (recovery) or thresholds change on resume — never per tick.
+     */
+    private void recountAll() {
+        resetCounters();
+        for (MemberAttendance ma : buffer.values()) {
+            ma.wheelPrev = null;
+            ma.wheelNext = null;
+            ma.scheduled = false;
+            ma.meetsThreshold = false;
+            if (ma.isPresent) {
+                presentCount++;
+            }
+            countArrival(ma);
+            if (ma.ticksTotal >= presentThresholdTicks) {
+                markMeetsThreshold(ma);
+            } else if (ma.isPresent) {
+                schedule(ma, ma.tickActivityStarted + presentThresholdTicks - ma.ticksTotal);
+            }
+        }
+    }
+
+    private void countArrival(MemberAttendance ma) {
+        if (ticksToSeconds(ma.ticksLate) > lateThresholdSeconds) {
+            lateCount++;
+            insertLate(ma);
+        }
+    }
+
+    private void markMeetsThreshold(MemberAttendance ma) {
+        if (!ma.meetsThreshold) {
+            ma.meetsThreshold = true;
+            meetsThresholdCount++;
+        }
+    }
+
+    private void schedule(MemberAttendance ma, int deadlineTick) {
+        int slot = deadlineTick & WHEEL_MASK;
+        ma.deadlineTick = deadlineTick;
+        ma.scheduled = true;
+        ma.wheelPrev = null;
+        ma.wheelNext = wheel[slot];
+        if (ma.wheelNext != null) {
+            ma.wheelNext.wheelPrev = ma;
+        }
+        wheel[slot] = ma;
+    }
+
+    private void unschedule(MemberAttendance ma) {
+        if (!ma.scheduled) {
+            return;
+        }
+        if (ma.wheelPrev != null) {
+            ma.wheelPrev.wheelNext = ma.wheelNext;
+        } else {
+            wheel[ma.deadlineTick & WHEEL_MASK] = ma.wheelNext;
+        }
+        if (ma.wheelNext != null) {
+            ma.wheelNext.wheelPrev = ma.wheelPrev;
+        }
+        ma.wheelPrev = null;
+        ma.wheelNext = null;
+        ma.scheduled = false;
+    }
+
+    /**
+     * Fire every slot between the last processed tick and now. Normally exactly one
+     * slot; after a long stall at most one full turn of the wheel.
+     */
+    private void advanceWheel(int now) {
+        int steps = Math.min(now - wheelTick, WHEEL_SIZE);
+        for (int i = 1; i <= steps; i++) {
+            int slot = (wheelTick + i) & WHEEL_MASK;
+            MemberAttendance ma = wheel[slot];
+            while (ma != null) {
+                MemberAttendance next = ma.wheelNext;
+                // Deadlines more than a turn away share the slot; leave them for a later lap
+                if (ma.deadlineTick <= now) {
+                    unschedule(ma);
+                    markMeetsThreshold(ma);
+                }
+                ma = next;
+            }
+        }
+        wheelTick = now;
+    }
+
     // -------------------------------------------------------------------------
     // Internal helpers (ported verbatim from original plugin)
     // -------------------------------------------------------------------------
@@ -224,33 +581,63 @@ public class EventAttendanceTracker {
                     0,                                       // ticksTotal
                     false                                    // isPresent
             );
+            ma.journalId = journal.registerMember(player.getName());
             buffer.put(key, ma);
+            countArrival(ma);
         }
     }
 
     private void pausePlayer(String playerName) {
         MemberAttendance ma = buffer.get(nameToKey(playerName));
-        if (ma != null) ma.isPresent = false;
+        if (ma == null || !ma.isPresent) return;
+        compileTicks(ma);
+        ma.isPresent = false;
+        presentCount--;
+        unschedule(ma);
+        // The interval may close on the crossing tick, before the wheel has fired it
+        if (ma.ticksTotal >= presentThresholdTicks) {
+            markMeetsThreshold(ma);
+        }
+        journal.append(ma.journalId, client.getTickCount() - eventStartTick, AttendanceJournal.LEAVE);
     }
 
     private void unpausePlayer(String playerName) {
         MemberAttendance ma = buffer.get(nameToKey(playerName));
         if (ma == null || ma.isPresent) return;
+        int now = client.getTickCount();
         ma.isPresent = true;
-        ma.tickActivityStarted = client.getTickCount();
+        ma.tickActivityStarted = now;
+        presentCount++;
+        if (!ma.meetsThreshold) {
+            schedule(ma, now + presentThresholdTicks - ma.ticksTotal);
+        }
+        journal.append(ma.journalId, now - eventStartTick, AttendanceJournal.JOIN);
     }
 
-    private void compileTicks(String playerName) {
-        MemberAttendance ma = buffer.get(nameToKey(playerName));
-        if (ma == null || !ma.isPresent) return;
+    private void compileTicks(MemberAttendance ma) {
+        if (!ma.isPresent) return;
         ma.ticksTotal += client.getTickCount() - ma.tickActivityStarted;
         ma.tickActivityStarted = client.getTickCount();
     }
 
-    private int ticksToSeconds(int ticks) {
+    private static int ticksToSeconds(int ticks) {
         return (int) (ticks * 0.6f);
     }
 
+    /**
+     * Smallest tick count whose {@link #ticksToSeconds(int)} reaches {@code seconds}.
+     */
+    private static int secondsToTicks(int seconds) {
+        int ticks = (int) Math.ceil(seconds / 0.6);
+        while (ticks > 0 && ticksToSeconds(ticks - 1) >= seconds) {
+            ticks--;
+        }
+        while (ticksToSeconds(ticks) < seconds) {
+            ticks++;
+        }
+        return ticks;
+    }
+
     private String nameToKey(String name) {
         return Text.toJagexName(name).toLowerCase();
     }
@@ -265,6 +652,13 @@ public class EventAttendanceTracker {
         int tickActivityStarted;
         int ticksTotal;
         boolean isPresent;
+        int journalId = -1;
+        boolean meetsThreshold;
+        // Timing wheel links, valid while scheduled
+        boolean scheduled;
+        int deadlineTick;
+        MemberAttendance wheelPrev;
+        MemberAttendance wheelNext;
 
         MemberAttendance(String playerName, int ticksLate, int tickActivityStarted,
                          int ticksTotal, boolean isPresent) {
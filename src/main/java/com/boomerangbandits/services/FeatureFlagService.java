@@ -6,19 +6,84 @@ import com.boomerangbandits.api.models.PluginConfigResponse;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+/**
+ * Resolves feature flags: a feature is on when the user enabled it and the server
+ * has not switched it off.
+ * <p>
+ * The hot-path checks ({@link #isCofferSoundEnabled()} etc.) run on every chat
+ * message, menu entry and loot event, so the flags are compiled into a bit mask
+ * whenever the server config or the plugin's own config changes and published
+ * through a volatile field. Each check is one volatile read and a bit test.
+ */
 @Singleton
 public class FeatureFlagService {
 
+    private static final int COFFER_SOUND = 1;
+    private static final int EVENT_OVERLAY = 1 << 1;
+    private static final int EASTER_EGGS = 1 << 2;
+    private static final int BOUNTY_TRACKING = 1 << 3;
+
     @Inject
     private ConfigSyncService configSyncService;
 
     @Inject
     private BoomerangBanditsConfig config;
 
-    public boolean isEnabled(String featureName, Supplier<Boolean> userConfigGetter) {
+    // Always recompiles from getLatestConfig(), so the listener's argument is not needed
+    private final Consumer<PluginConfigResponse> configListener = latestConfig -> refresh();
+
+    private volatile int flags;
+
+    /**
+     * Compile the initial snapshot and follow server config updates.
+     */
+    public void startUp() {
+        configSyncService.addConfigListener(configListener);
+        refresh();
+    }
+
+    public void shutDown() {
+        configSyncService.removeConfigListener(configListener);
+    }
+
+    /**
+     * Recompile the snapshot. Call when the plugin's config group changes.
+     * <p>
+     * Runs from both the config-sync listener and ConfigChanged, possibly at once.
+     * Serialising the calls and always reading the latest server config means the
+     * last compile to publish reflects the newest state of both inputs.
+     */
+    public synchronized void refresh() {
         PluginConfigResponse latestConfig = configSyncService.getLatestConfig();
+        int compiled = 0;
+        if (resolve(latestConfig, "cofferDepositSound", config::cofferDepositSound)) {
+            compiled |= COFFER_SOUND;
+        }
+        if (resolve(latestConfig, "eventOverlay", config::showEventOverlay)) {
+            compiled |= EVENT_OVERLAY;
+        }
+        if (resolve(latestConfig, "easterEggs", config::enableEasterEggs)) {
+            compiled |= EASTER_EGGS;
+        }
+        if (resolve(latestConfig, "bountyTracking", () -> true)) {
+            compiled |= BOUNTY_TRACKING;
+        }
+        flags = compiled;
+    }
+
+    /**
+     * Resolve a flag directly, bypassing the snapshot. Use the specific
+     * {@code is...Enabled} methods on hot paths.
+     */
+    public boolean isEnabled(String featureName, Supplier<Boolean> userConfigGetter) {
+        return resolve(configSyncService.getLatestConfig(), featureName, userConfigGetter);
+    }
+
+    private static boolean resolve(PluginConfigResponse latestConfig, String featureName,
+                                   Supplier<Boolean> userConfigGetter) {
         if (latestConfig == null) {
             return userConfigGetter.get();
         }
@@ -37,18 +102,18 @@ public class FeatureFlagService {
     }
 
     public boolean isCofferSoundEnabled() {
-        return isEnabled("cofferDepositSound", config::cofferDepositSound);
+        return (flags & COFFER_SOUND) != 0;
     }
 
     public boolean isEventOverlayEnabled() {
-        return isEnabled("eventOverlay", config::showEventOverlay);
+        return (flags & EVENT_OVERLAY) != 0;
     }
 
     public boolean isEasterEggsEnabled() {
-        return isEnabled("easterEggs", config::enableEasterEggs);
+        return (flags & EASTER_EGGS) != 0;
     }
 
     public boolean isBountyTrackingEnabled() {
-        return isEnabled("bountyTracking", () -> true);
+        return (flags & BOUNTY_TRACKING) != 0;
     }
 }
@@ -0,0 +1,100 @@
+package com.boomerangbandits.services;
+
+import net.runelite.api.Player;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Buffers PlayerSpawned/PlayerDespawned into one batch per game tick.
+ * <p>
+ * A world hop or login delivers hundreds of spawns inside a single tick. Instead of
+ * pushing each one through the world guard, name normalisation and map lookups of
+ * every consumer, the plugin records them here (one identity-map put per event) and
+ * calls {@link #flush()} from onGameTick. Subscribers then see the net change for
+ * the tick:
+ * <ul>
+ *   <li>spawn + despawn of the same player within a tick cancel out</li>
+ *   <li>despawn + spawn (re-render) also cancel — the player never really left</li>
+ *   <li>duplicates collapse to a single entry</li>
+ * </ul>
+ * Must only be used from the client thread. The lists passed to subscribers are
+ * reused between ticks and must not be retained.
+ */
+@Singleton
+public class PlayerEventBatcher {
+
+    /**
+     * Receives the net spawn/despawn changes for one tick.
+     */
+    public interface Subscriber {
+        void onPlayersChanged(List<Player> spawned, List<Player> despawned);
+    }
+
+    // true = spawned this tick, false = despawned this tick
+    private final IdentityHashMap<Player, Boolean> pending = new IdentityHashMap<>();
+    private final List<Player> spawned = new ArrayList<>();
+    private final List<Player> despawned = new ArrayList<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public void onPlayerSpawned(Player player) {
+        if (player == null) {
+            return;
+        }
+        if (Boolean.FALSE.equals(pending.get(player))) {
+            pending.remove(player);
+        } else {
+            pending.put(player, Boolean.TRUE);
+        }
+    }
+
+    public void onPlayerDespawned(Player player) {
+        if (player == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(pending.get(player))) {
+            pending.remove(player);
+        } else {
+            pending.put(player, Boolean.FALSE);
+        }
+    }
+
+    /**
+     * Hand this tick's net changes to every subscriber. Call once per tick.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        pending.forEach((player, isSpawn) -> (isSpawn ? spawned : despawned).add(player));
+        pending.clear();
+
+        try {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.onPlayersChanged(spawned, despawned);
+            }
+        } finally {
+            spawned.clear();
+            despawned.clear();
+        }
+    }
+
+    /**
+     * Drop anything buffered. Call on hop/logout — the scene is rebuilt from scratch.
+     */
+    public void clear() {
+        pending.clear();
+    }
+}
@@ -0,0 +1,23 @@
+package com.boomerangbandits.services;
+
+import com.google.gson.Gson;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.File;
+
+/**
+ * Digest of the (name, canonical rank) roster the backend last acknowledged, for
+ * differential rank sync in {@link ClanRankSyncService}.
+ */
+@Singleton
+public class RankSyncDigest extends RosterDigest {
+
+    private static final String FILE_NAME = "rank-sync-digest.json";
+
+    @Inject
+    public RankSyncDigest(@Named("boomerangDataDir") File dataDir, Gson gson) {
+        super(dataDir, FILE_NAME, gson);
+    }
+}
@@ -0,0 +1,186 @@
+package com.boomerangbandits.services;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persisted digest of a roster the backend last acknowledged, for differential syncs.
+ * <p>
+ * Holds one (name, value hash) entry per member, where the value is whatever the sync
+ * sends for that member (rank, group role), plus the roster version the server returned
+ * for that sync. Callers diff the current roster against it and send only what changed
+ * on top of that version; a stable clan diffs to nothing and nothing is sent. The digest
+ * is written to the plugin data directory after each acknowledged sync so a client
+ * restart does not force a full sync.
+ * <p>
+ * Without a server version (older backend, first run, or after a version conflict) the
+ * digest offers no base and the caller falls back to a full sync.
+ * <p>
+ * Each sync keeps its own file; see {@link RankSyncDigest} and {@link WomGroupSyncDigest}.
+ */
+@Slf4j
+public class RosterDigest {
+
+    private final String fileName;
+    private final File file;
+    private final Gson gson;
+
+    private boolean loaded;
+    private Long version;
+    // normalised name -> value hash
+    private Map<String, Integer> hashes = new HashMap<>();
+
+    protected RosterDigest(File dataDir, String fileName, Gson gson) {
+        this.fileName = fileName;
+        this.file = new File(dataDir, fileName);
+        this.gson = gson;
+    }
+
+    /**
+     * Compare {@code roster} (name -> synced value) with the acknowledged digest.
+     *
+     * @return the changes since the last acknowledged sync, or null if there is no
+     *         version to diff against and a full sync is needed
+     */
+    @Nullable
+    public synchronized Delta diff(Map<String, String> roster) {
+        ensureLoaded();
+        if (version == null) {
+            return null;
+        }
+
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, String> entry : roster.entrySet()) {
+            Integer known = hashes.get(entry.getKey());
+            if (known == null || known != entry.getValue().hashCode()) {
+                changed.add(entry.getKey());
+            }
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (String name : hashes.keySet()) {
+            if (!roster.containsKey(name)) {
+                removed.add(name);
+            }
+        }
+        return new Delta(version, changed, removed);
+    }
+
+    /**
+     * Record {@code roster} as acknowledged by the server at {@code newVersion} and persist it.
+     * A null version (backend without delta support) clears the base, so the next sync is full.
+     */
+    public synchronized void commit(Map<String, String> roster, @Nullable Long newVersion) {
+        ensureLoaded();
+        Map<String, Integer> digest = new HashMap<>(roster.size() * 2);
+        for (Map.Entry<String, String> entry : roster.entrySet()) {
+            digest.put(entry.getKey(), entry.getValue().hashCode());
+        }
+        hashes = digest;
+        version = newVersion;
+        save();
+    }
+
+    /**
+     * Drop the base after a version mismatch; the next sync is full.
+     */
+    public synchronized void invalidate() {
+        ensureLoaded();
+        hashes = new HashMap<>();
+        version = null;
+        save();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            Stored stored = gson.fromJson(reader, Stored.class);
+            if (stored != null && stored.hashes != null) {
+                hashes = new HashMap<>(stored.hashes);
+                version = stored.version;
+            }
+            log.debug("Loaded {}: {} members at version {}", fileName, hashes.size(), version);
+        } catch (IOException | JsonParseException e) {
+            log.warn("Could not read {}, next sync will be full", fileName, e);
+            hashes = new HashMap<>();
+            version = null;
+        }
+    }
+
+    private void save() {
+        Stored stored = new Stored();
+        stored.version = version;
+        stored.hashes = hashes;
+
+        // Write beside the target and rename, so a crash never leaves a truncated digest
+        File tmp = new File(file.getParentFile(), fileName + ".tmp");
+        try {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+                gson.toJson(stored, writer);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Could not write {}", fileName, e);
+        }
+    }
+
+    /**
+     * Changes between the current roster and the acknowledged digest.
+     */
+    @Getter
+    public static final class Delta {
+        private final long baseVersion;
+        // Names that are new or whose value changed
+        private final List<String> changed;
+        private final List<String> removed;
+
+        Delta(long baseVersion, List<String> changed, List<String> removed) {
+            this.baseVersion = baseVersion;
+            this.changed = Collections.unmodifiableList(changed);
+            this.removed = Collections.unmodifiableList(removed);
+        }
+
+        public boolean isEmpty() {
+            return changed.isEmpty() && removed.isEmpty();
+        }
+
+        public int size() {
+            return changed.size() + removed.size();
+        }
+    }
+
+    /**
+     * On-disk form.
+     */
+    private static final class Stored {
+        Long version;
+        Map<String, Integer> hashes;
+    }
+}
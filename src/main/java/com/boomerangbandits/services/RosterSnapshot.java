@@ -0,0 +1,141 @@
+package com.boomerangbandits.services;
+
+import com.boomerangbandits.util.SlicedTask;
+import net.runelite.api.clan.ClanMember;
+import net.runelite.api.clan.ClanRank;
+import net.runelite.api.clan.ClanSettings;
+import net.runelite.api.clan.ClanTitle;
+import net.runelite.client.util.Text;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the full clan roster (including offline members) from
+ * {@link ClanSettings}, in parallel arrays: normalised Jagex name, rank id and the
+ * clan's title for that rank.
+ * <p>
+ * Built once per roster change by {@link ClanRosterService}, sliced across client
+ * frames, and shared by rank sync, WOM group sync and diffing. Titles are resolved once per
+ * distinct rank, so members of the same rank share one title string. Bot accounts
+ * (names starting with "[#") are left out. Safe to read from any thread.
+ */
+public final class RosterSnapshot {
+
+    public static final RosterSnapshot EMPTY = new RosterSnapshot(null, new String[0], new int[0], new String[0]);
+
+    @Nullable
+    private final String clanName;
+    private final String[] names;
+    private final int[] ranks;
+    private final String[] titles;
+
+    private RosterSnapshot(@Nullable String clanName, String[] names, int[] ranks, String[] titles) {
+        this.clanName = clanName;
+        this.names = names;
+        this.ranks = ranks;
+        this.titles = titles;
+    }
+
+    /**
+     * Copies the roster out of ClanSettings one member per step, so the copy can be
+     * sliced across client frames by {@link com.boomerangbandits.util.ClientThreadTaskRunner}.
+     * Steps MUST run on the client thread.
+     */
+    static final class Builder implements SlicedTask<RosterSnapshot> {
+        private final ClanSettings clanSettings;
+        private final List<ClanMember> members;
+        private final String[] names;
+        private final int[] ranks;
+        private final String[] titles;
+        private final Map<Integer, String> titleByRank = new HashMap<>();
+        private int index;
+        private int count;
+
+        Builder(ClanSettings clanSettings) {
+            this.clanSettings = clanSettings;
+            this.members = clanSettings.getMembers();
+            this.names = new String[members.size()];
+            this.ranks = new int[members.size()];
+            this.titles = new String[members.size()];
+        }
+
+        @Override
+        public boolean step() {
+            if (index >= members.size()) {
+                return true;
+            }
+
+            ClanMember member = members.get(index++);
+            String rsn = member.getName();
+            if (rsn != null && !rsn.startsWith("[#")) { // skip bot accounts
+                ClanRank rank = member.getRank();
+                int rankValue = rank.getRank();
+                String title;
+                if (titleByRank.containsKey(rankValue)) {
+                    title = titleByRank.get(rankValue);
+                } else {
+                    ClanTitle clanTitle = clanSettings.titleForRank(rank);
+                    title = clanTitle != null && clanTitle.getName() != null && !clanTitle.getName().isEmpty()
+                            ? clanTitle.getName()
+                            : null;
+                    titleByRank.put(rankValue, title);
+                }
+
+                names[count] = Text.toJagexName(rsn);
+                ranks[count] = rankValue;
+                titles[count] = title;
+                count++;
+            }
+            return index >= members.size();
+        }
+
+        @Override
+        public RosterSnapshot result() {
+            if (count == names.length) {
+                return new RosterSnapshot(clanSettings.getName(), names, ranks, titles);
+            }
+            return new RosterSnapshot(clanSettings.getName(),
+                    Arrays.copyOf(names, count), Arrays.copyOf(ranks, count), Arrays.copyOf(titles, count));
+        }
+    }
+
+    @Nullable
+    public String getClanName() {
+        return clanName;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public boolean isEmpty() {
+        return names.length == 0;
+    }
+
+    /**
+     * Normalised Jagex name (see {@link Text#toJagexName(String)}).
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Raw rank id ({@link ClanRank#getRank()}).
+     */
+    public int getRank(int index) {
+        return ranks[index];
+    }
+
+    /**
+     * The clan's title for the member's rank, as configured in-game, or null if the
+     * rank has no title.
+     */
+    @Nullable
+    public String getTitle(int index) {
+        return titles[index];
+    }
+}
@@ -0,0 +1,23 @@
+package com.boomerangbandits.services;
+
+import com.google.gson.Gson;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.File;
+
+/**
+ * Digest of the (name, role) roster the backend last acknowledged, for differential
+ * WOM group sync in {@link WomGroupSyncService}.
+ */
+@Singleton
+public class WomGroupSyncDigest extends RosterDigest {
+
+    private static final String FILE_NAME = "wom-group-sync-digest.json";
+
+    @Inject
+    public WomGroupSyncDigest(@Named("boomerangDataDir") File dataDir, Gson gson) {
+        super(dataDir, FILE_NAME, gson);
+    }
+}
@@ -0,0 +1,142 @@
+package com.boomerangbandits.services;
+
+import com.boomerangbandits.api.WomApiService;
+import com.boomerangbandits.api.WomApiService.SyncMember;
+import com.boomerangbandits.api.models.GroupSyncResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Syncs the clan roster to the backend's WOM group.
+ * <p>
+ * Like rank sync, the sync is differential: {@link WomGroupSyncDigest} remembers the
+ * (name, role) roster the backend last acknowledged, and only members added or whose
+ * role changed since are sent, as a {@code delta} request on top of that version. An
+ * unchanged roster sends nothing. With no acknowledged version, or when the backend
+ * reports a version mismatch, the whole roster is sent as {@code add_only}.
+ * <p>
+ * Members who left are not sent: add_only never deactivates, and delta follows it.
+ */
+@Slf4j
+@Singleton
+public class WomGroupSyncService {
+
+    private static final int GROUP_ID = 11575;
+    private static final String MODE_ADD_ONLY = "add_only";
+    private static final String MODE_DELTA = "delta";
+
+    @Inject
+    private ClanRosterService clanRoster;
+    @Inject
+    private WomApiService womApi;
+    @Inject
+    private WomGroupSyncDigest groupDigest;
+    @Inject
+    private ScheduledExecutorService executor;
+
+    /**
+     * Sync from a fresh roster snapshot. The snapshot is built in slices on the client
+     * thread; diffing and the HTTP call happen off-thread.
+     */
+    public void sync() {
+        // Admin-triggered: rebuild so in-place rank changes are included
+        clanRoster.refresh().thenAcceptAsync(snapshot -> {
+            if (snapshot.isEmpty()) {
+                log.warn("[WOM] Cannot sync — clan settings not loaded");
+                return;
+            }
+
+            Map<String, String> roster = collectRoles(snapshot);
+            RosterDigest.Delta delta = groupDigest.diff(roster);
+            if (delta == null) {
+                sendFull(roster);
+            } else if (delta.getChanged().isEmpty()) {
+                log.info("[WOM] Group roster unchanged since version {}, nothing to sync", delta.getBaseVersion());
+            } else {
+                sendDelta(roster, delta);
+            }
+        }, executor).exceptionally(e -> {
+            log.error("[WOM] Could not build roster for group sync", e);
+            return null;
+        });
+    }
+
+    /**
+     * Normalised name -> WOM role (the clan title lowercased, or "member").
+     */
+    private static Map<String, String> collectRoles(RosterSnapshot snapshot) {
+        Map<String, String> roster = new LinkedHashMap<>(snapshot.size() * 2);
+        for (int i = 0; i < snapshot.size(); i++) {
+            String title = snapshot.getTitle(i);
+            roster.put(snapshot.getName(i), title != null ? title.toLowerCase() : "member");
+        }
+        return roster;
+    }
+
+    private void sendDelta(Map<String, String> roster, RosterDigest.Delta delta) {
+        List<SyncMember> members = new ArrayList<>(delta.getChanged().size());
+        for (String name : delta.getChanged()) {
+            members.add(new SyncMember(name, roster.get(name), "normal", null));
+        }
+
+        log.info("[WOM] Syncing {} changed clan members to backend (delta on version {})",
+                members.size(), delta.getBaseVersion());
+
+        womApi.syncGroupMembers(GROUP_ID, MODE_DELTA, delta.getBaseVersion(), members,
+                result -> onSynced(roster, delta.getChanged(), result),
+                error -> {
+                    if (error instanceof WomApiService.GroupVersionConflictException) {
+                        log.info("[WOM] {}, falling back to full sync", error.getMessage());
+                        groupDigest.invalidate();
+                        sendFull(roster);
+                    } else {
+                        log.error("[WOM] Group sync failed: {}", error.getMessage());
+                    }
+                });
+    }
+
+    private void sendFull(Map<String, String> roster) {
+        List<String> names = new ArrayList<>(roster.keySet());
+        List<SyncMember> members = new ArrayList<>(names.size());
+        for (String name : names) {
+            members.add(new SyncMember(name, roster.get(name), "normal", null));
+        }
+
+        log.info("[WOM] Syncing {} clan members to backend (add_only)", members.size());
+
+        womApi.syncGroupMembers(GROUP_ID, MODE_ADD_ONLY, members,
+                result -> onSynced(roster, names, result),
+                error -> log.error("[WOM] Group sync failed: {}", error.getMessage()));
+    }
+
+    /**
+     * @param sent names in the order they were sent, to resolve error row indices
+     */
+    private void onSynced(Map<String, String> roster, List<String> sent, GroupSyncResponse result) {
+        GroupSyncResponse.Data data = result.getData();
+        if (data == null) {
+            return;
+        }
+        log.info("[WOM] Group sync done — added:{} updated:{} unchanged:{} invalid:{}",
+                data.getAdded(), data.getUpdated(), data.getUnchanged(), data.getInvalid());
+
+        // Rows the backend rejected must be resent, so they do not count as acknowledged
+        Map<String, String> acknowledged = roster;
+        if (data.getErrors() != null && !data.getErrors().isEmpty()) {
+            acknowledged = new LinkedHashMap<>(roster);
+            for (GroupSyncResponse.SyncError error : data.getErrors()) {
+                if (error.getIndex() >= 0 && error.getIndex() < sent.size()) {
+                    acknowledged.remove(sent.get(error.getIndex()));
+                }
+            }
+        }
+        groupDigest.commit(acknowledged, data.getVersion());
+    }
+}
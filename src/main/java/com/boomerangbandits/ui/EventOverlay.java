@@ -1,9 +1,9 @@
 package com.boomerangbandits.ui;
 
-import com.boomerangbandits.BoomerangBanditsConfig;
 import com.boomerangbandits.api.ClanContentService;
 import com.boomerangbandits.api.models.ActiveEvent;
 import com.boomerangbandits.api.models.EventDetails;
+import com.boomerangbandits.services.FeatureFlagService;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.client.ui.overlay.OverlayMenuEntry;
 import net.runelite.client.ui.overlay.OverlayPanel;
@@ -24,17 +24,17 @@ import static net.runelite.client.ui.overlay.OverlayManager.OPTION_CONFIGURE;
 public class EventOverlay extends OverlayPanel {
     private static final long REFRESH_INTERVAL = 60_000; // 1 minute
     private final ClanContentService contentService;
-    private final BoomerangBanditsConfig config;
+    private final FeatureFlagService featureFlagService;
     private ActiveEvent currentEvent;
     private volatile long lastRefresh = 0;
 
     @Inject
     public EventOverlay(
             ClanContentService contentService,
-            BoomerangBanditsConfig config
+            FeatureFlagService featureFlagService
     ) {
         this.contentService = contentService;
-        this.config = config;
+        this.featureFlagService = featureFlagService;
 
         setPosition(OverlayPosition.TOP_LEFT);
         getMenuEntries().add(new OverlayMenuEntry(
@@ -48,8 +48,8 @@ public class EventOverlay extends OverlayPanel {
     public Dimension render(Graphics2D graphics) {
         panelComponent.getChildren().clear();
 
-        // Check if overlay is enabled
-        if (!config.showEventOverlay()) {
+        // Check if overlay is enabled (user setting, unless the server switched it off)
+        if (!featureFlagService.isEventOverlayEnabled()) {
             return null;
         }
 
@@ -3,11 +3,13 @@ package com.boomerangbandits.ui.panels;
 import com.boomerangbandits.api.AdminApiService;
 import com.boomerangbandits.api.models.AttendanceEntry;
 import com.boomerangbandits.api.models.RankChange;
+import com.boomerangbandits.services.AttendanceSnapshot;
 import com.boomerangbandits.services.EventAttendanceTracker;
 import com.boomerangbandits.ui.components.AntialiasedLabel;
 import com.boomerangbandits.ui.components.AntialiasedTextArea;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.FontManager;
 
@@ -33,12 +35,14 @@ public class AdminPanel extends JPanel implements Scrollable {
     @Setter
     private Runnable onGroupSync;
     private EventAttendanceTracker attendanceTracker;
+    private ClientThread clientThread;
 
     // Attendance section
     private JTextField eventNameField;
     private JSpinner thresholdSpinner;
     private JButton startEventButton;
     private JButton stopSubmitButton;
+    private JButton discardEventButton;
     private JLabel attendanceStatusLabel;
     private JLabel attendanceResultLabel;
 
@@ -185,6 +189,12 @@ public class AdminPanel extends JPanel implements Scrollable {
         stopSubmitButton.addActionListener(e -> stopAndSubmitAttendance());
         section.add(stopSubmitButton);
 
+        // Discard button — only shown while a crash-recovered event is pending
+        discardEventButton = makeButton("Discard Recovered Event");
+        discardEventButton.setVisible(false);
+        discardEventButton.addActionListener(e -> discardRecoveredEvent());
+        section.add(discardEventButton);
+
         section.add(javax.swing.Box.createVerticalStrut(2));
 
         attendanceResultLabel = new AntialiasedLabel(" ");
@@ -194,44 +204,102 @@ public class AdminPanel extends JPanel implements Scrollable {
         return section;
     }
 
+    /**
+     * Tracker state belongs to the client thread, so every call into it is run there;
+     * the panel only reads the published {@link AttendanceSnapshot} directly.
+     */
     private void startAttendanceEvent() {
-        if (attendanceTracker == null) return;
-        attendanceTracker.startEvent();
+        if (attendanceTracker == null || clientThread == null) return;
+        int thresholdSeconds = (int) thresholdSpinner.getValue() * 60;
         startEventButton.setEnabled(false);
+        clientThread.invoke(() -> {
+            if (attendanceTracker.isRecovered()) {
+                attendanceTracker.resumeRecoveredEvent(thresholdSeconds, thresholdSeconds / 2);
+            } else {
+                attendanceTracker.startEvent(thresholdSeconds, thresholdSeconds / 2);
+            }
+            SwingUtilities.invokeLater(this::onAttendanceEventStarted);
+        });
+    }
+
+    private void onAttendanceEventStarted() {
+        if (!attendanceTracker.getSnapshot().isRunning()) {
+            // Refused by the tracker (e.g. non-standard world)
+            startEventButton.setEnabled(true);
+            attendanceStatusLabel.setText("Could not start event");
+            attendanceStatusLabel.setForeground(new Color(0xFF5252));
+            return;
+        }
+
+        clearRecoveredState();
         stopSubmitButton.setEnabled(true);
         attendanceStatusLabel.setText("Event running — tracking members...");
         attendanceStatusLabel.setForeground(new Color(0x4CAF50));
         attendanceResultLabel.setText(" ");
 
-        // Tick a live counter every second
-        Timer liveTimer = new Timer(1000, null);
+        // Render the tracker's published snapshot; repaint only when a new one arrives
+        long[] renderedVersion = {-1};
+        Timer liveTimer = new Timer(600, null);
         liveTimer.addActionListener(e -> {
-            if (attendanceTracker == null || !attendanceTracker.isRunning()) {
+            if (attendanceTracker == null) {
                 liveTimer.stop();
                 return;
             }
-            int secs = attendanceTracker.getEventDurationSeconds();
-            int mins = secs / 60;
-            attendanceStatusLabel.setText(String.format(
-                    "Running %02d:%02d — %d members seen",
-                    mins, secs % 60, attendanceTracker.getMemberCount()
-            ));
+            AttendanceSnapshot snapshot = attendanceTracker.getSnapshot();
+            if (!snapshot.isRunning()) {
+                liveTimer.stop();
+                return;
+            }
+            if (snapshot.getVersion() == renderedVersion[0]) {
+                return;
+            }
+            renderedVersion[0] = snapshot.getVersion();
+            renderLiveSnapshot(snapshot);
         });
         liveTimer.start();
     }
 
+    private void renderLiveSnapshot(AttendanceSnapshot snapshot) {
+        int secs = snapshot.getDurationSeconds();
+        attendanceStatusLabel.setText(String.format(
+                "Running %02d:%02d — %d seen, %d here",
+                secs / 60, secs % 60, snapshot.getMemberCount(), snapshot.getPresentCount()
+        ));
+
+        StringBuilder live = new StringBuilder(String.format(
+                "%d meet min. time, %d late", snapshot.getMeetsThresholdCount(), snapshot.getLateCount()));
+        if (!snapshot.getTopLateArrivals().isEmpty()) {
+            live.append(" (");
+            for (int i = 0; i < snapshot.getTopLateArrivals().size(); i++) {
+                AttendanceSnapshot.LateArrival arrival = snapshot.getTopLateArrivals().get(i);
+                if (i > 0) live.append(", ");
+                live.append(arrival.getName()).append(' ').append(arrival.getSecondsLate() / 60).append('m');
+            }
+            live.append(')');
+        }
+        attendanceResultLabel.setText(live.toString());
+        attendanceResultLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+    }
+
     private void stopAndSubmitAttendance() {
-        if (attendanceTracker == null || adminApi == null) return;
+        if (attendanceTracker == null || adminApi == null || clientThread == null) return;
 
         String eventName = eventNameField.getText().trim();
         int thresholdSeconds = (int) thresholdSpinner.getValue() * 60;
-        java.util.List<AttendanceEntry> entries = attendanceTracker.stopEvent(thresholdSeconds, thresholdSeconds / 2);
-        int duration = attendanceTracker.getEventDurationSeconds();
+        stopSubmitButton.setEnabled(false);
+        clientThread.invoke(() -> {
+            List<AttendanceEntry> entries = attendanceTracker.stopEvent(thresholdSeconds, thresholdSeconds / 2);
+            int duration = attendanceTracker.getEventDurationSeconds();
+            SwingUtilities.invokeLater(() -> submitAttendance(eventName, duration, entries));
+        });
+    }
 
+    private void submitAttendance(String eventName, int duration, List<AttendanceEntry> entries) {
+        clearRecoveredState();
         startEventButton.setEnabled(true);
-        stopSubmitButton.setEnabled(false);
         attendanceStatusLabel.setText("Submitting " + entries.size() + " entries...");
         attendanceStatusLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+        attendanceResultLabel.setText(" ");
 
         adminApi.submitAttendance(
                 eventName.isEmpty() ? "Unnamed Event" : eventName,
@@ -266,6 +334,39 @@ public class AdminPanel extends JPanel implements Scrollable {
         );
     }
 
+    /**
+     * Offer an event rebuilt from the crash journal: Start becomes Resume,
+     * Stop &amp; Submit submits it as-is, and Discard drops it.
+     */
+    public void offerRecoveredEvent(int memberCount, int durationSeconds) {
+        if (attendanceTracker == null || !attendanceTracker.getSnapshot().isRecovered()) return;
+        startEventButton.setText("Resume Event");
+        startEventButton.setEnabled(true);
+        stopSubmitButton.setEnabled(true);
+        discardEventButton.setVisible(true);
+        attendanceStatusLabel.setText(String.format(
+                "Recovered event %02d:%02d — %d members",
+                durationSeconds / 60, durationSeconds % 60, memberCount
+        ));
+        attendanceStatusLabel.setForeground(new Color(0xFFB74D));
+        attendanceResultLabel.setText(" ");
+    }
+
+    private void discardRecoveredEvent() {
+        if (attendanceTracker == null || clientThread == null) return;
+        clientThread.invoke(attendanceTracker::discardRecoveredEvent);
+        clearRecoveredState();
+        startEventButton.setEnabled(true);
+        stopSubmitButton.setEnabled(false);
+        attendanceStatusLabel.setText("No event running");
+        attendanceStatusLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR);
+    }
+
+    private void clearRecoveredState() {
+        startEventButton.setText("Start Event");
+        discardEventButton.setVisible(false);
+    }
+
     // =========================================================================
     // Section 2: Rank Changes
     // =========================================================================
@@ -688,8 +789,9 @@ public class AdminPanel extends JPanel implements Scrollable {
         // Intentionally empty — form starts blank for creating new announcements.
     }
 
-    public void setAttendanceTracker(EventAttendanceTracker tracker, AdminApiService api) {
+    public void setAttendanceTracker(EventAttendanceTracker tracker, AdminApiService api, ClientThread clientThread) {
         this.attendanceTracker = tracker;
+        this.clientThread = clientThread;
         // Start button only visible when tracker is wired (i.e. plugin is running)
         if (startEventButton != null) startEventButton.setEnabled(true);
     }
@@ -1,6 +1,7 @@
 package com.boomerangbandits.util;
 
 import com.boomerangbandits.BoomerangBanditsConfig;
+import com.boomerangbandits.services.ClanPresenceIndex;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
@@ -16,6 +17,8 @@ import javax.inject.Singleton;
  * No error UI is shown — the plugin simply does nothing for non-clan members.
  * <p>
  * Throttling: After initial failure, retries every 5 seconds for 1 minute, then gives up.
+ * <p>
+ * Member, rank and title lookups go through {@link ClanPresenceIndex} (O(1)).
  */
 @Slf4j
 @Singleton
@@ -60,6 +63,9 @@ public class ClanValidator {
     @Inject
     private BoomerangBanditsConfig config;
 
+    @Inject
+    private ClanPresenceIndex presenceIndex;
+
     private Boolean cachedValidationResult = null;
     private long lastValidationAttempt = 0;
     private long firstFailureTime = 0;
@@ -153,8 +159,7 @@ public class ClanValidator {
             return false;
         }
 
-        String playerName = client.getLocalPlayer().getName();
-        ClanChannelMember member = clanChannel.findMember(playerName);
+        ClanChannelMember member = presenceIndex.getLocalMember();
         if (member == null) {
             log.debug("Could not find self in clan channel");
             return false;
@@ -182,7 +187,7 @@ public class ClanValidator {
         }
 
         String playerName = client.getLocalPlayer().getName();
-        ClanChannelMember member = clanChannel.findMember(playerName);
+        ClanChannelMember member = presenceIndex.getLocalMember();
 
         if (member == null) {
             log.debug("[ClanValidator] getCurrentRank() - Player '{}' not found in clan channel", playerName);
@@ -210,19 +215,12 @@ public class ClanValidator {
             return false;
         }
 
-        ClanSettings clanSettings = client.getClanSettings();
-        if (clanSettings == null) {
-            log.debug("[ClanValidator] isAdmin() - ClanSettings not loaded yet");
-            return false;
-        }
-
-        ClanTitle title = clanSettings.titleForRank(rank);
-        if (title == null || title.getName() == null) {
-            log.debug("[ClanValidator] isAdmin() - no title for rank {}", rank.getRank());
+        String titleName = presenceIndex.getTitle(rank);
+        if (titleName == null) {
+            log.debug("[ClanValidator] isAdmin() - no title for rank {} (or ClanSettings not loaded)", rank.getRank());
             return false;
         }
 
-        String titleName = title.getName().toLowerCase().trim();
         for (String adminTitle : ADMIN_TITLE_NAMES) {
             if (titleName.equals(adminTitle)) {
                 log.debug("[ClanValidator] isAdmin() - matched admin title '{}'", titleName);
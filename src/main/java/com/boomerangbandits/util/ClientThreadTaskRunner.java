@@ -0,0 +1,66 @@
+package com.boomerangbandits.util;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link SlicedTask}s cooperatively on the client thread.
+ * <p>
+ * Each client cycle a task gets at most {@link #SLICE_BUDGET_MICROS} of steps; if it is
+ * not finished by then it yields and resumes on the next cycle via
+ * {@link ClientThread#invokeLater(java.util.function.BooleanSupplier)}. Long jobs such
+ * as walking a 500+ member roster are spread over a few frames instead of one hitch.
+ * <p>
+ * The returned future completes on the client thread. Callers that do heavy work with
+ * the result should continue on an executor ({@code thenAcceptAsync}).
+ */
+@Slf4j
+@Singleton
+public class ClientThreadTaskRunner {
+
+    static final long SLICE_BUDGET_MICROS = 1_000;
+    private static final long SLICE_BUDGET_NANOS = TimeUnit.MICROSECONDS.toNanos(SLICE_BUDGET_MICROS);
+
+    @Inject
+    private ClientThread clientThread;
+
+    /**
+     * Schedule {@code task}. Safe to call from any thread.
+     *
+     * @return completes with the task's result, or exceptionally if a step throws
+     */
+    public <T> CompletableFuture<T> submit(SlicedTask<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        clientThread.invokeLater(() -> runSlice(task, result));
+        return result;
+    }
+
+    /**
+     * @return true when the task is done (stop rescheduling), false to resume next cycle
+     */
+    private static <T> boolean runSlice(SlicedTask<T> task, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return true; // cancelled by the caller
+        }
+
+        long deadline = System.nanoTime() + SLICE_BUDGET_NANOS;
+        try {
+            do {
+                if (task.step()) {
+                    result.complete(task.result());
+                    return true;
+                }
+            } while (System.nanoTime() < deadline);
+        } catch (Exception e) {
+            log.warn("Client thread task failed", e);
+            result.completeExceptionally(e);
+            return true;
+        }
+        return false;
+    }
+}
@@ -7,7 +7,15 @@ import net.runelite.client.config.RuneScapeProfileType;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.EnumSet;
 
+/**
+ * Tells whether the player is on a standard OSRS world.
+ * <p>
+ * The classification only changes with the world, so it is computed by
+ * {@link #refresh()} — called from the plugin on GameStateChanged and WorldChanged —
+ * and cached. {@link #isStandardWorld()} is a plain field read and safe on any hot path.
+ */
 @Slf4j
 @Singleton
 public class GameModeGuard {
@@ -15,30 +23,42 @@ public class GameModeGuard {
     @Inject
     private Client client;
 
+    private volatile boolean standardWorld;
+
+    /**
+     * Returns true only if the player is on a standard OSRS world, as of the last
+     * {@link #refresh()}.
+     */
+    public boolean isStandardWorld() {
+        return standardWorld;
+    }
+
+    /**
+     * Reclassify the current world. Logs only when the classification changes.
+     */
+    public void refresh() {
+        boolean standard = classify();
+        if (standard != standardWorld) {
+            log.debug("[GameModeGuard] Standard world: {} (profile: {}, worldTypes: {})",
+                    standard, RuneScapeProfileType.getCurrent(client), client.getWorldType());
+            standardWorld = standard;
+        }
+    }
+
     /**
-     * Returns true only if the player is on a standard OSRS world.
      * Blocks: Leagues (SEASONAL), Deadman Mode (DEADMAN), Fresh Start (FRESH_START_WORLD),
      * Beta worlds (BETA_WORLD), PvP Arena, Quest Speedrunning, and all other non-STANDARD profiles.
      * Also explicitly blocks Tournament worlds (WorldType.TOURNAMENT_WORLD) which incorrectly
      * return RuneScapeProfileType.STANDARD.
      */
-    public boolean isStandardWorld() {
-        if (client.getWorldType().isEmpty()) {
-            log.debug("[GameModeGuard] Empty world types detected");
-            return false;
-        }
-
-        RuneScapeProfileType profile = RuneScapeProfileType.getCurrent(client);
-        if (profile != RuneScapeProfileType.STANDARD) {
-            log.debug("[GameModeGuard] Non-standard profile detected: {}, worldTypes: {}",
-                    profile, client.getWorldType());
+    private boolean classify() {
+        EnumSet<WorldType> worldTypes = client.getWorldType();
+        if (worldTypes.isEmpty()) {
             return false;
         }
-        if (client.getWorldType().contains(WorldType.TOURNAMENT_WORLD)) {
-            log.debug("[GameModeGuard] Tournament world detected, worldTypes: {}",
-                    client.getWorldType());
+        if (RuneScapeProfileType.getCurrent(client) != RuneScapeProfileType.STANDARD) {
             return false;
         }
-        return true;
+        return !worldTypes.contains(WorldType.TOURNAMENT_WORLD);
     }
 }
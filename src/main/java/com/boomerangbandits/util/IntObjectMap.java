@@ -0,0 +1,144 @@
+package com.boomerangbandits.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code int} keys to objects.
+ *
+ * <p>Used on hot paths (loot, NPC spawns, menu entries) where {@code HashMap<Integer, V>}
+ * would box every lookup. Lookups and inserts never allocate except when the table
+ * grows. Null values are not allowed — a null slot marks an empty bucket.</p>
+ *
+ * <p>Not thread-safe. Maps that are read from several threads must be fully built
+ * before being published (e.g. through a volatile field) and not modified afterwards.</p>
+ *
+ * @param <V> value type
+ */
+public class IntObjectMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    public IntObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of entries the map should hold without growing
+     */
+    public IntObjectMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must be non-negative");
+        }
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 2, 2) - 1) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the value for {@code key}, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int i = indexOf(key);
+        return i >= 0 ? (V) values[i] : null;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return the previous value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return null;
+    }
+
+    /**
+     * Insert only if the key is absent.
+     *
+     * @return the existing value, or null if {@code value} was inserted
+     */
+    public V putIfAbsent(int key, V value) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+
+    private int indexOf(int key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(int key) {
+        // Spread sequential ids (item/NPC ids cluster) across the table
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length << 1];
+        values = new Object[oldValues.length << 1];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int j = slot(oldKeys[i]);
+                while (values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.boomerangbandits.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Case-insensitive Aho-Corasick matcher for a fixed set of literal patterns.
+ *
+ * <p>Finds every pattern occurring anywhere in a text in a single left-to-right pass,
+ * regardless of how many patterns there are. The automaton is compiled once into a
+ * dense ASCII transition table, so {@link #match(CharSequence)} does no allocation.
+ * Non-ASCII characters never match a pattern character.</p>
+ *
+ * <p>Immutable and thread-safe after construction.</p>
+ */
+public final class MultiPatternMatcher {
+
+    /**
+     * Patterns are reported as bits of an int.
+     */
+    public static final int MAX_PATTERNS = 32;
+
+    private static final int ALPHABET = 128;
+
+    // transitions[state * ALPHABET + c] = next state
+    private final int[] transitions;
+    // Bit mask of patterns that end at each state (including via fail links)
+    private final int[] outputs;
+
+    /**
+     * @param patterns literal patterns; pattern {@code i} is reported as bit {@code 1 << i}
+     */
+    public MultiPatternMatcher(String... patterns) {
+        if (patterns.length > MAX_PATTERNS) {
+            throw new IllegalArgumentException("At most " + MAX_PATTERNS + " patterns are supported");
+        }
+
+        // Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> out = new ArrayList<>();
+        trie.add(newNode());
+        out.add(0);
+
+        for (int p = 0; p < patterns.length; p++) {
+            String pattern = patterns[p];
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns must be non-empty");
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = fold(pattern.charAt(i));
+                if (c < 0) {
+                    throw new IllegalArgumentException("Patterns must be ASCII: " + pattern);
+                }
+                int next = trie.get(state)[c];
+                if (next < 0) {
+                    next = trie.size();
+                    trie.get(state)[c] = next;
+                    trie.add(newNode());
+                    out.add(0);
+                }
+                state = next;
+            }
+            out.set(state, out.get(state) | (1 << p));
+        }
+
+        // Turn it into a DFA: breadth-first, filling missing edges from fail links
+        int states = trie.size();
+        transitions = new int[states * ALPHABET];
+        outputs = new int[states];
+        int[] fail = new int[states];
+        for (int s = 0; s < states; s++) {
+            outputs[s] = out.get(s);
+        }
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] > 0) {
+                transitions[c] = root[c];
+                fail[root[c]] = 0;
+                queue.add(root[c]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] |= outputs[fail[state]];
+            int[] node = trie.get(state);
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = node[c];
+                if (next > 0) {
+                    fail[next] = transitions[fail[state] * ALPHABET + c];
+                    transitions[state * ALPHABET + c] = next;
+                    queue.add(next);
+                } else {
+                    transitions[state * ALPHABET + c] = transitions[fail[state] * ALPHABET + c];
+                }
+            }
+        }
+    }
+
+    /**
+     * @return bit mask of every pattern found in {@code text}; 0 if none
+     */
+    public int match(CharSequence text) {
+        int state = 0;
+        int found = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int c = fold(text.charAt(i));
+            state = c < 0 ? 0 : transitions[state * ALPHABET + c];
+            found |= outputs[state];
+        }
+        return found;
+    }
+
+    private static int[] newNode() {
+        int[] node = new int[ALPHABET];
+        Arrays.fill(node, -1);
+        return node;
+    }
+
+    private static int fold(char c) {
+        if (c >= ALPHABET) {
+            return -1;
+        }
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+}
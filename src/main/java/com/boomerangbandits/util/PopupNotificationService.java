@@ -7,12 +7,13 @@ import net.runelite.api.WidgetNode;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetModalMode;
 import net.runelite.api.widgets.WidgetUtil;
-import net.runelite.client.callback.ClientThread;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.annotation.Nullable;
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -20,8 +21,12 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * Shows native OSRS notification popups (same widget as collection log notifications).
  * Uses interface 660 + script 3343 (NOTIFICATION_DISPLAY_INIT).
  * <p>
- * Popups are queued and processed one at a time on the game tick.
- * Call {@link #processQueue()} from onGameTick to drain the queue.
+ * Popups can be queued from any thread and are shown one at a time from the game
+ * tick. Call {@link #processQueue()} from onGameTick; it returns immediately when
+ * there is nothing queued or showing. Waiting popups are ordered by
+ * {@link PopupType} priority, and a burst of same-type popups that coalesce is
+ * merged into one ("3 bounties completed"). The visible popup is tracked by that
+ * same tick call rather than a per-popup frame poller.
  */
 @Slf4j
 @Singleton
@@ -40,10 +45,31 @@ public class PopupNotificationService {
     @Inject
     private Client client;
 
-    @Inject
-    private ClientThread clientThread;
+    /**
+     * Popup kinds, highest priority shown first. Types with a coalesced title merge
+     * while waiting: the title becomes the formatted count and the latest message is kept.
+     */
+    public enum PopupType {
+        GENERAL(0, null),
+        BOUNTY(1, "%d Bounties Completed");
+
+        private final int priority;
+        @Nullable
+        private final String coalescedTitle;
+
+        PopupType(int priority, @Nullable String coalescedTitle) {
+            this.priority = priority;
+            this.coalescedTitle = coalescedTitle;
+        }
+    }
+
+    // Filled from any thread, drained on the client thread
+    private final Queue<PopupData> incoming = new ConcurrentLinkedQueue<>();
 
-    private final Queue<PopupData> popupQueue = new ConcurrentLinkedQueue<>();
+    // Client thread only
+    private final List<PopupData> waiting = new ArrayList<>();
+    private WidgetNode activeNode;
+    private Widget activeWidget;
 
     /**
      * Queue a popup with full customisation.
@@ -56,7 +82,14 @@ public class PopupNotificationService {
      */
     public void showPopup(String title, String message,
                           @Nullable Color color, @Nullable Color titleColor, int fontId) {
-        popupQueue.offer(new PopupData(title, message, color, titleColor, fontId));
+        incoming.offer(new PopupData(PopupType.GENERAL, title, message, color, titleColor, fontId));
+    }
+
+    /**
+     * Queue a typed popup in default gold; see {@link PopupType} for priority and coalescing.
+     */
+    public void showPopup(PopupType type, String title, String message) {
+        incoming.offer(new PopupData(type, title, message, DEFAULT_GOLD, null, -1));
     }
 
     /**
@@ -82,28 +115,68 @@ public class PopupNotificationService {
     }
 
     /**
-     * Call this from onGameTick. Processes one popup per tick if no popup is currently visible.
+     * Call this from onGameTick. Closes our popup once it has finished, then shows the
+     * highest-priority waiting popup if no popup is visible. No-op while idle.
      */
     public void processQueue() {
-        // Wait for any existing popup to close
-        if (client.getWidget(INTERFACE_ID, 1) != null) {
-            return;
+        if (activeNode != null) {
+            if (activeWidget != null && activeWidget.getWidth() > 0) {
+                return; // still visible
+            }
+            client.closeInterface(activeNode, true);
+            activeNode = null;
+            activeWidget = null;
         }
 
-        if (popupQueue.isEmpty()) {
+        PopupData queued;
+        while ((queued = incoming.poll()) != null) {
+            enqueue(queued);
+        }
+        if (waiting.isEmpty()) {
             return;
         }
 
-        PopupData data = popupQueue.poll();
-        if (data == null) {
+        // Wait for any other popup (e.g. collection log) to close
+        if (client.getWidget(INTERFACE_ID, 1) != null) {
             return;
         }
 
+        show(takeHighestPriority());
+    }
+
+    private void enqueue(PopupData data) {
+        if (data.type.coalescedTitle != null) {
+            for (PopupData existing : waiting) {
+                if (existing.type == data.type) {
+                    existing.count++;
+                    existing.message = data.message;
+                    return;
+                }
+            }
+        }
+        waiting.add(data);
+    }
+
+    private PopupData takeHighestPriority() {
+        int best = 0;
+        for (int i = 1; i < waiting.size(); i++) {
+            // Strictly greater keeps FIFO order within a priority
+            if (waiting.get(i).type.priority > waiting.get(best).type.priority) {
+                best = i;
+            }
+        }
+        return waiting.remove(best);
+    }
+
+    private void show(PopupData data) {
         try {
             WidgetNode widgetNode = client.openInterface(getComponentId(), INTERFACE_ID, WidgetModalMode.MODAL_CLICKTHROUGH);
 
             Color color = data.color != null ? data.color : DEFAULT_GOLD;
-            client.runScript(SCRIPT_ID, data.title, data.message, toRgbInt(color));
+            String title = data.count > 1 && data.type.coalescedTitle != null
+                    ? String.format(data.type.coalescedTitle, data.count)
+                    : data.title;
+            client.runScript(SCRIPT_ID, title, data.message, toRgbInt(color));
 
             // Post-modify: override title color if specified (child 3 = title text)
             if (data.titleColor != null) {
@@ -112,14 +185,8 @@ public class PopupNotificationService {
                     titleWidget.setTextColor(toRgbInt(data.titleColor));
                 }
             }
-            Widget widget = client.getWidget(INTERFACE_ID, 1);
-            clientThread.invokeLater(() -> {
-                if (widget != null && widget.getWidth() > 0) {
-                    return false; // still visible, keep waiting
-                }
-                client.closeInterface(widgetNode, true);
-                return true;
-            });
+            activeNode = widgetNode;
+            activeWidget = client.getWidget(INTERFACE_ID, 1);
         } catch (Exception e) {
             log.warn("Failed to show popup notification", e);
         }
@@ -138,14 +205,18 @@ public class PopupNotificationService {
     }
 
     private static class PopupData {
+        final PopupType type;
         final String title;
-        final String message;
+        String message;
         final Color color;
         final Color titleColor;
         final int fontId;
+        // Number of popups merged into this one
+        int count = 1;
 
-        PopupData(String title, String message,
+        PopupData(PopupType type, String title, String message,
                  @Nullable Color color, @Nullable Color titleColor, int fontId) {
+            this.type = type;
             this.title = title;
             this.message = message;
             this.color = color;
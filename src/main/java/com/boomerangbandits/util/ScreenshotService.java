@@ -1,5 +1,9 @@
 package com.boomerangbandits.util;
 
+import com.boomerangbandits.BoomerangBanditsConfig;
+import com.boomerangbandits.api.models.PluginConfigResponse;
+import com.boomerangbandits.services.ConfigSyncService;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.gameval.InterfaceID;
@@ -12,39 +16,171 @@ import javax.imageio.ImageIO;
 import javax.imageio.ImageWriteParam;
 import javax.imageio.ImageWriter;
 import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Captures privacy-safe screenshots for bounty submissions.
+ * <p>
+ * Encoding runs on a dedicated low-priority thread with a bounded queue, so it never
+ * competes with RuneLite's shared executor. The encoder keeps its JPEG writer and
+ * image/output buffers between captures, downscales with an area-averaging box filter
+ * and streams the JPEG straight through a Base64 encoder. Capture requests made while
+ * a capture is still in flight share its result.
+ * <p>
+ * With a byte budget (server-configured, see {@link PluginConfigResponse.ScreenshotLimits})
+ * the encoder binary-searches JPEG quality, then steps the width down, until the
+ * encoded image fits. The width and quality that worked are cached per source
+ * resolution, so later captures usually need a single pass.
+ * <p>
+ * The server can also restrict captures to the viewport, chatbox and notification
+ * regions. Their union is cropped out of the frame before scaling, so side panels are
+ * never encoded. PM hiding applies regardless of the crop.
+ * <p>
+ * In the optional armed mode ({@link BoomerangBanditsConfig#armedScreenshots()}) a
+ * downscaled copy of each tick's frame is kept in a reusable double buffer while a
+ * bounty is active, with the PM area blacked out instead of hidden. A completion then
+ * encodes the frame from its own tick without waiting for the next one.
+ */
 @Slf4j
 @Singleton
 public class ScreenshotService
 {
-	private static final float JPEG_QUALITY = 0.92f;
-	private static final int MAX_WIDTH = 1600;
+	private static final EncodeLimits DEFAULT_LIMITS = EncodeLimits.from(new PluginConfigResponse.ScreenshotLimits());
+	// Floor for server-provided widths, and the step used when quality alone cannot meet the budget
+	private static final int MIN_WIDTH = 320;
+	private static final float WIDTH_STEP = 0.8f;
+	private static final int QUALITY_SEARCH_STEPS = 4;
+
+	// Crop region flags, see PluginConfigResponse.ScreenshotLimits#cropRegions
+	private static final int REGION_VIEWPORT = 1;
+	private static final int REGION_CHATBOX = 1 << 1;
+	private static final int REGION_NOTIFICATION = 1 << 2;
+	// Native notification popup (collection log, bounty popups), see PopupNotificationService
+	private static final int NOTIFICATION_INTERFACE_ID = 660;
+	// An armed frame older than this is stale for a completion; fall back to a fresh capture
+	private static final int ARMED_MAX_AGE_TICKS = 1;
+	// Two INT_RGB copies share the memory budget
+	private static final int ARMED_BYTES_PER_PIXEL = 4 * 2;
+	// One capture encoding plus one waiting; single-flight keeps this rarely used
+	private static final int ENCODE_QUEUE_CAPACITY = 1;
 
 	@Inject private Client client;
 	@Inject private ClientThread clientThread;
 	@Inject private DrawManager drawManager;
-	@Inject private ScheduledExecutorService executor;
+	@Inject private ConfigSyncService configSyncService;
+	@Inject private BoomerangBanditsConfig config;
+
+	private ThreadPoolExecutor encoderExecutor;
+	private FrameEncoder frameEncoder;
+	// Shared by every caller until its frame has been encoded
+	private CompletableFuture<String> inFlight;
+
+	// Armed double buffer: front is the latest complete copy, back is overwritten next
+	private final Object armedLock = new Object();
+	private ArmedFrame armedFront;
+	private ArmedFrame armedBack;
+	private volatile boolean armedFramePending;
+
+	/**
+	 * Start the encoder thread. Call from plugin startUp.
+	 */
+	public synchronized void startUp()
+	{
+		if (encoderExecutor != null)
+		{
+			return;
+		}
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+			new ArrayBlockingQueue<>(ENCODE_QUEUE_CAPACITY), r ->
+		{
+			Thread thread = new Thread(r, "boomerang-screenshot-encoder");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		// Let the idle thread die between bounties; its buffers live on in the FrameEncoder
+		executor.allowCoreThreadTimeOut(true);
+		encoderExecutor = executor;
+		frameEncoder = new FrameEncoder();
+	}
+
+	/**
+	 * Stop the encoder thread and release its writer and buffers. Call from plugin shutDown.
+	 */
+	public synchronized void shutDown()
+	{
+		if (encoderExecutor == null)
+		{
+			return;
+		}
+
+		FrameEncoder encoder = frameEncoder;
+		try
+		{
+			// Runs after any queued capture, on the thread that owns the encoder
+			encoderExecutor.execute(encoder::release);
+		}
+		catch (RejectedExecutionException e)
+		{
+			log.debug("Screenshot encoder busy at shutdown, leaving buffers to GC");
+		}
+		encoderExecutor.shutdown();
+		encoderExecutor = null;
+		frameEncoder = null;
+		disarm();
+	}
 
 	/**
 	 * Captures a privacy-safe screenshot with chat/PM hidden.
 	 * Returns a CompletableFuture containing the base64-encoded JPEG string,
 	 * or null if capture fails. Times out after 10 seconds.
+	 * <p>
+	 * If a capture is already in flight its future is returned instead of starting another.
 	 */
-	public CompletableFuture<String> captureScreenshot()
+	public synchronized CompletableFuture<String> captureScreenshot()
 	{
+		if (inFlight != null && !inFlight.isDone())
+		{
+			return inFlight;
+		}
+
 		CompletableFuture<String> result = new CompletableFuture<>();
+		inFlight = result;
+		EncodeLimits limits = currentLimits();
+
+		ArmedFrame armed = pinArmedFrame(client.getTickCount());
+		if (armed != null)
+		{
+			result.whenComplete((encoded, error) -> unpinArmedFrame(armed));
+			submitEncode(armed.image, armed.crop, limits, result);
+			return result.orTimeout(10, TimeUnit.SECONDS);
+		}
 
 		clientThread.invokeLater(() ->
 		{
+			// Widget bounds are in real canvas coordinates; scaled to the frame once it arrives
+			Rectangle region = captureRegion(limits.getCropRegions());
+			Dimension canvas = client.getRealDimensions();
+
 			Widget pm = client.getWidget(InterfaceID.PmChat.CONTAINER);
 
 			boolean pmWasVisible = pm != null && !pm.isHidden();
@@ -57,25 +193,7 @@ public class ScreenshotService
 				{
 					try
 					{
-						executor.submit(() ->
-						{
-							if (image == null)
-							{
-								result.complete(null);
-								return;
-							}
-							try
-							{
-								BufferedImage screenshot = toBufferedImage(image);
-								screenshot = resizeIfNeeded(screenshot);
-								result.complete(compressAndEncode(screenshot));
-							}
-							catch (Exception e)
-							{
-								log.error("Error processing screenshot", e);
-								result.complete(null);
-							}
-						});
+						submitEncode(image, toFrameCoordinates(region, canvas, image), limits, result);
 					}
 					finally
 					{
@@ -103,61 +221,715 @@ public class ScreenshotService
 		return result.orTimeout(10, TimeUnit.SECONDS);
 	}
 
-	private BufferedImage toBufferedImage(Image image)
+	// ======================================================================
+	// ARMED CAPTURE
+	// ======================================================================
+
+	/**
+	 * Call from onGameTick. While armed, requests this tick's frame and copies it into
+	 * the back buffer; otherwise releases the buffers.
+	 *
+	 * @param bountyActive whether the player is hunting a bounty right now, i.e. a bounty
+	 *                     NPC is near; false releases the buffers straight away
+	 */
+	public void onGameTick(boolean bountyActive)
 	{
-		if (image instanceof BufferedImage)
+		if (!bountyActive || !config.armedScreenshots())
+		{
+			disarm();
+			return;
+		}
+		if (armedFramePending)
 		{
-			return (BufferedImage) image;
+			// Last tick's frame has not been drawn yet
+			return;
 		}
 
-		BufferedImage buffered = new BufferedImage(
-			image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_RGB);
-		Graphics2D g = buffered.createGraphics();
-		g.drawImage(image, 0, 0, null);
-		g.dispose();
-		return buffered;
+		int tick = client.getTickCount();
+		Rectangle region = captureRegion(currentLimits().getCropRegions());
+		Rectangle pm = visibleBounds(client.getWidget(InterfaceID.PmChat.CONTAINER));
+		Dimension canvas = client.getRealDimensions();
+		long budgetBytes = config.armedScreenshotMemoryMb() * 1024L * 1024L;
+
+		armedFramePending = true;
+		try
+		{
+			drawManager.requestNextFrameListener(image ->
+			{
+				try
+				{
+					storeArmedFrame(image, tick, toFrameCoordinates(region, canvas, image),
+						toFrameCoordinates(pm, canvas, image), budgetBytes);
+				}
+				catch (Exception e)
+				{
+					log.debug("Failed to keep armed frame", e);
+				}
+				finally
+				{
+					armedFramePending = false;
+				}
+			});
+		}
+		catch (Exception e)
+		{
+			armedFramePending = false;
+			log.debug("Failed to request armed frame", e);
+		}
 	}
 
-	private BufferedImage resizeIfNeeded(BufferedImage image)
+	/**
+	 * Copy the frame into the back buffer, downscaled to fit the memory budget, and swap.
+	 */
+	private void storeArmedFrame(Image image, int tick, @Nullable Rectangle crop, @Nullable Rectangle pm, long budgetBytes)
 	{
-		if (image.getWidth() <= MAX_WIDTH)
+		if (image == null)
+		{
+			return;
+		}
+		int width = image.getWidth(null);
+		int height = image.getHeight(null);
+		if (width <= 0 || height <= 0)
 		{
-			return image;
+			return;
 		}
 
-		double scale = (double) MAX_WIDTH / image.getWidth();
-		int newHeight = (int) (image.getHeight() * scale);
+		ArmedFrame frame;
+		synchronized (armedLock)
+		{
+			frame = armedBack != null ? armedBack : new ArmedFrame();
+			if (frame.pinned)
+			{
+				// Still being encoded; keep the current front for another tick
+				return;
+			}
+		}
+
+		double scale = Math.min(1.0, Math.sqrt((double) budgetBytes / ARMED_BYTES_PER_PIXEL / ((long) width * height)));
+		int copyWidth = Math.max(1, (int) (width * scale));
+		int copyHeight = Math.max(1, (int) (height * scale));
+		if (frame.image == null || frame.image.getWidth() != copyWidth || frame.image.getHeight() != copyHeight)
+		{
+			frame.image = new BufferedImage(copyWidth, copyHeight, BufferedImage.TYPE_INT_RGB);
+		}
+
+		Graphics2D g = frame.image.createGraphics();
+		try
+		{
+			if (scale < 1.0)
+			{
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			}
+			g.drawImage(image, 0, 0, copyWidth, copyHeight, null);
+			// PMs cannot be hidden every tick without flicker, so they are painted over instead
+			Rectangle pmArea = scaleRect(pm, scale);
+			if (pmArea != null)
+			{
+				g.setColor(Color.BLACK);
+				g.fill(pmArea);
+			}
+		}
+		finally
+		{
+			g.dispose();
+		}
+		frame.crop = scaleRect(crop, scale);
+		frame.tick = tick;
 
-		BufferedImage resized = new BufferedImage(MAX_WIDTH, newHeight, BufferedImage.TYPE_INT_RGB);
-		Graphics2D g = resized.createGraphics();
-		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-		g.drawImage(image, 0, 0, MAX_WIDTH, newHeight, null);
-		g.dispose();
-		return resized;
+		synchronized (armedLock)
+		{
+			armedBack = armedFront;
+			armedFront = frame;
+		}
 	}
 
-	private String compressAndEncode(BufferedImage image) throws Exception
+	@Nullable
+	private ArmedFrame pinArmedFrame(int tick)
 	{
-		ByteArrayOutputStream baos = new ByteArrayOutputStream(65536);
+		synchronized (armedLock)
+		{
+			ArmedFrame frame = armedFront;
+			if (frame == null || frame.pinned || tick - frame.tick > ARMED_MAX_AGE_TICKS)
+			{
+				return null;
+			}
+			frame.pinned = true;
+			return frame;
+		}
+	}
+
+	private void unpinArmedFrame(ArmedFrame frame)
+	{
+		synchronized (armedLock)
+		{
+			frame.pinned = false;
+		}
+	}
 
-		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
-		ImageWriteParam param = writer.getDefaultWriteParam();
-		param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
-		param.setCompressionQuality(JPEG_QUALITY);
+	private void disarm()
+	{
+		synchronized (armedLock)
+		{
+			// A pinned frame stays reachable from its encode task until that finishes
+			armedFront = null;
+			armedBack = null;
+		}
+	}
 
-		try (ImageOutputStream ios = ImageIO.createImageOutputStream(baos))
+	@Nullable
+	private static Rectangle scaleRect(@Nullable Rectangle rect, double scale)
+	{
+		if (rect == null || scale == 1.0)
 		{
-			writer.setOutput(ios);
-			writer.write(null, new IIOImage(image, null, null), param);
+			return rect;
 		}
-		finally
+		int x = (int) Math.floor(rect.x * scale);
+		int y = (int) Math.floor(rect.y * scale);
+		return new Rectangle(x, y,
+			(int) Math.ceil((rect.x + rect.width) * scale) - x,
+			(int) Math.ceil((rect.y + rect.height) * scale) - y);
+	}
+
+	/**
+	 * One reusable frame copy of the armed double buffer. Guarded by {@link #armedLock}
+	 * except for the pixel data, which only the thread holding it as the back buffer writes.
+	 */
+	private static final class ArmedFrame
+	{
+		BufferedImage image;
+		// Crop in this copy's coordinates, or null for the whole frame
+		Rectangle crop;
+		int tick = -1;
+		// Being encoded; must not be overwritten
+		boolean pinned;
+	}
+
+	// ======================================================================
+	// REGIONS
+	// ======================================================================
+
+	/**
+	 * Union of the requested regions that are currently on screen, in canvas coordinates.
+	 *
+	 * @return the crop, or null to capture the whole frame
+	 */
+	@Nullable
+	private Rectangle captureRegion(int regions)
+	{
+		if (regions == 0)
+		{
+			return null;
+		}
+
+		Rectangle area = null;
+		if ((regions & REGION_VIEWPORT) != 0 && client.getViewportWidth() > 0 && client.getViewportHeight() > 0)
+		{
+			area = union(area, new Rectangle(client.getViewportXOffset(), client.getViewportYOffset(),
+				client.getViewportWidth(), client.getViewportHeight()));
+		}
+		if ((regions & REGION_CHATBOX) != 0)
+		{
+			area = union(area, visibleBounds(client.getWidget(InterfaceID.Chatbox.CHATAREA)));
+		}
+		if ((regions & REGION_NOTIFICATION) != 0)
+		{
+			area = union(area, visibleBounds(client.getWidget(NOTIFICATION_INTERFACE_ID, 1)));
+		}
+		return area;
+	}
+
+	@Nullable
+	private static Rectangle visibleBounds(@Nullable Widget widget)
+	{
+		if (widget == null || widget.isHidden())
+		{
+			return null;
+		}
+		Rectangle bounds = widget.getBounds();
+		return bounds != null && !bounds.isEmpty() ? bounds : null;
+	}
+
+	@Nullable
+	private static Rectangle union(@Nullable Rectangle area, @Nullable Rectangle add)
+	{
+		if (add == null)
+		{
+			return area;
+		}
+		return area == null ? new Rectangle(add) : area.union(add);
+	}
+
+	/**
+	 * Scale a canvas-space crop to the frame, which is larger than the canvas in stretched mode.
+	 */
+	@Nullable
+	private static Rectangle toFrameCoordinates(@Nullable Rectangle region, @Nullable Dimension canvas, @Nullable Image image)
+	{
+		if (region == null || canvas == null || image == null || canvas.width <= 0 || canvas.height <= 0)
+		{
+			return region;
+		}
+		int frameWidth = image.getWidth(null);
+		int frameHeight = image.getHeight(null);
+		if (frameWidth == canvas.width && frameHeight == canvas.height)
+		{
+			return region;
+		}
+		double sx = (double) frameWidth / canvas.width;
+		double sy = (double) frameHeight / canvas.height;
+		int x = (int) Math.floor(region.x * sx);
+		int y = (int) Math.floor(region.y * sy);
+		return new Rectangle(x, y,
+			(int) Math.ceil((region.x + region.width) * sx) - x,
+			(int) Math.ceil((region.y + region.height) * sy) - y);
+	}
+
+	private void submitEncode(Image image, @Nullable Rectangle crop, EncodeLimits limits, CompletableFuture<String> result)
+	{
+		if (image == null)
+		{
+			result.complete(null);
+			return;
+		}
+
+		ThreadPoolExecutor executor;
+		FrameEncoder encoder;
+		synchronized (this)
+		{
+			executor = encoderExecutor;
+			encoder = frameEncoder;
+		}
+		if (executor == null)
+		{
+			log.debug("Screenshot encoder not running, dropping capture");
+			result.complete(null);
+			return;
+		}
+
+		try
+		{
+			executor.execute(() ->
+			{
+				try
+				{
+					result.complete(encoder.encode(image, crop, limits));
+				}
+				catch (Exception e)
+				{
+					log.error("Error processing screenshot", e);
+					result.complete(null);
+				}
+			});
+		}
+		catch (RejectedExecutionException e)
+		{
+			log.warn("Screenshot encoder queue full, dropping capture");
+			result.complete(null);
+		}
+	}
+
+	private EncodeLimits currentLimits()
+	{
+		PluginConfigResponse config = configSyncService.getLatestConfig();
+		if (config == null || config.getScreenshotLimits() == null)
+		{
+			return DEFAULT_LIMITS;
+		}
+		return EncodeLimits.from(config.getScreenshotLimits());
+	}
+
+	// ======================================================================
+	// ENCODER
+	// ======================================================================
+
+	/**
+	 * Sanitised copy of the server's screenshot ceilings.
+	 */
+	@Value
+	private static class EncodeLimits
+	{
+		int maxBytes;
+		int maxWidth;
+		float maxQuality;
+		float minQuality;
+		int minWidth;
+		int cropRegions;
+
+		static EncodeLimits from(PluginConfigResponse.ScreenshotLimits limits)
+		{
+			int maxWidth = Math.max(MIN_WIDTH, limits.getMaxWidth());
+			float maxQuality = clampQuality(limits.getMaxQuality());
+			float minQuality = Math.min(maxQuality, clampQuality(limits.getMinQuality()));
+			float minScale = Math.max(0.1f, Math.min(1f, limits.getMinScale()));
+			int minWidth = Math.max(MIN_WIDTH, Math.round(maxWidth * minScale));
+			return new EncodeLimits(Math.max(0, limits.getMaxBytes()), maxWidth, maxQuality, minQuality,
+				Math.min(minWidth, maxWidth), regionFlags(limits.getCropRegions()));
+		}
+
+		private static int regionFlags(@Nullable List<String> names)
+		{
+			if (names == null)
+			{
+				return 0;
+			}
+			int flags = 0;
+			for (String name : names)
+			{
+				if ("viewport".equalsIgnoreCase(name))
+				{
+					flags |= REGION_VIEWPORT;
+				}
+				else if ("chatbox".equalsIgnoreCase(name))
+				{
+					flags |= REGION_CHATBOX;
+				}
+				else if ("notification".equalsIgnoreCase(name))
+				{
+					flags |= REGION_NOTIFICATION;
+				}
+			}
+			return flags;
+		}
+
+		private static float clampQuality(float quality)
+		{
+			return Math.max(0.05f, Math.min(1f, quality));
+		}
+	}
+
+	/**
+	 * Width and quality that met the budget for one source resolution.
+	 */
+	private static final class EncodeParams
+	{
+		final int width;
+		final float quality;
+
+		EncodeParams(int width, float quality)
 		{
-			writer.dispose();
+			this.width = width;
+			this.quality = quality;
 		}
+	}
+
+	/**
+	 * JPEG writer and scratch buffers, touched only from the encoder thread.
+	 */
+	private static final class FrameEncoder
+	{
+		// Base64 output of the current attempt and of the best attempt so far; swapped, never reallocated
+		private ByteArrayOutputStream output = new ByteArrayOutputStream(256 * 1024);
+		private ByteArrayOutputStream best = new ByteArrayOutputStream(256 * 1024);
+		private ImageWriter writer;
+		private ImageWriteParam writeParam;
+
+		// Keyed by source width << 32 | height; cleared when the limits change
+		private final Map<Long, EncodeParams> paramsByResolution = new HashMap<>();
+		private EncodeLimits cachedLimits;
+
+		// Copy target for frames that are not already INT_RGB
+		private BufferedImage frameBuffer;
+
+		// Downscale target and per-row accumulators, sized for the last resolution
+		private BufferedImage scaled;
+		private int[] scaledPixels;
+		private int[] columnMap;
+		private int[] rowPixels;
+		private long[] rowSums;
+		private int[] rowCounts;
+
+		String encode(Image image, @Nullable Rectangle crop, EncodeLimits limits) throws Exception
+		{
+			BufferedImage frame = toRgbImage(image);
+			Rectangle full = new Rectangle(frame.getWidth(), frame.getHeight());
+			Rectangle area = crop != null ? crop.intersection(full) : full;
+			if (area.isEmpty())
+			{
+				area = full;
+			}
+			int ceilingWidth = Math.min(limits.getMaxWidth(), area.width);
+
+			if (limits.getMaxBytes() <= 0)
+			{
+				compress(scaleTo(frame, area, ceilingWidth), limits.getMaxQuality(), output);
+				return finish(output, ceilingWidth, limits.getMaxQuality());
+			}
+
+			if (!limits.equals(cachedLimits))
+			{
+				paramsByResolution.clear();
+				cachedLimits = limits;
+			}
 
-		byte[] bytes = baos.toByteArray();
-		log.debug("Screenshot captured: {}x{}, {} KB", image.getWidth(), image.getHeight(), bytes.length / 1024);
+			long key = (long) area.width << 32 | area.height;
+			EncodeParams cached = paramsByResolution.get(key);
+			if (cached != null)
+			{
+				compress(scaleTo(frame, area, cached.width), cached.quality, output);
+				if (fits(output, limits))
+				{
+					return finish(output, cached.width, cached.quality);
+				}
+				// Scene got busier than last time; search again from the top
+			}
+
+			EncodeParams chosen = search(frame, area, ceilingWidth, limits);
+			paramsByResolution.put(key, chosen);
+			return finish(best, chosen.width, chosen.quality);
+		}
+
+		/**
+		 * Find the widest image, and at that width the highest quality, that fits the
+		 * budget. Leaves the chosen encoding in {@link #best}. If nothing fits, the
+		 * smallest attempt (min width, min quality) is used.
+		 */
+		private EncodeParams search(BufferedImage frame, Rectangle area, int ceilingWidth, EncodeLimits limits) throws Exception
+		{
+			int floorWidth = Math.min(limits.getMinWidth(), ceilingWidth);
+			int width = ceilingWidth;
+			while (true)
+			{
+				BufferedImage scaledFrame = scaleTo(frame, area, width);
+
+				compress(scaledFrame, limits.getMaxQuality(), output);
+				if (fits(output, limits))
+				{
+					keepAsBest();
+					return new EncodeParams(width, limits.getMaxQuality());
+				}
+
+				compress(scaledFrame, limits.getMinQuality(), output);
+				boolean minFits = fits(output, limits);
+				if (minFits || width <= floorWidth)
+				{
+					keepAsBest();
+					if (!minFits)
+					{
+						log.debug("Screenshot exceeds {} KB even at {}px, quality {}", limits.getMaxBytes() / 1024, width, limits.getMinQuality());
+						return new EncodeParams(width, limits.getMinQuality());
+					}
 
-		return Base64.getEncoder().encodeToString(bytes);
+					// minQuality fits, maxQuality does not: narrow in between
+					float low = limits.getMinQuality();
+					float high = limits.getMaxQuality();
+					for (int i = 0; i < QUALITY_SEARCH_STEPS; i++)
+					{
+						float mid = (low + high) / 2;
+						compress(scaledFrame, mid, output);
+						if (fits(output, limits))
+						{
+							keepAsBest();
+							low = mid;
+						}
+						else
+						{
+							high = mid;
+						}
+					}
+					return new EncodeParams(width, low);
+				}
+
+				width = Math.max(floorWidth, Math.round(width * WIDTH_STEP));
+			}
+		}
+
+		/**
+		 * The {@code area} of {@code frame}, at most {@code width} pixels wide.
+		 */
+		private BufferedImage scaleTo(BufferedImage frame, Rectangle area, int width)
+		{
+			if (width >= area.width)
+			{
+				boolean whole = area.x == 0 && area.y == 0
+					&& area.width == frame.getWidth() && area.height == frame.getHeight();
+				return whole ? frame : frame.getSubimage(area.x, area.y, area.width, area.height);
+			}
+			int height = Math.max(1, (int) ((long) area.height * width / area.width));
+			return downscale(frame, area, width, height);
+		}
+
+		private static boolean fits(ByteArrayOutputStream base64, EncodeLimits limits)
+		{
+			// Every 4 Base64 characters carry 3 bytes
+			return (long) base64.size() / 4 * 3 <= limits.getMaxBytes();
+		}
+
+		private void keepAsBest()
+		{
+			ByteArrayOutputStream previous = best;
+			best = output;
+			output = previous;
+		}
+
+		private String finish(ByteArrayOutputStream base64, int width, float quality) throws Exception
+		{
+			String encoded = base64.toString("US-ASCII");
+			log.debug("Screenshot captured: {}px wide, quality {}, {} KB", width, quality, encoded.length() / 4 * 3 / 1024);
+			return encoded;
+		}
+
+		void release()
+		{
+			if (writer != null)
+			{
+				writer.dispose();
+				writer = null;
+			}
+			frameBuffer = null;
+			scaled = null;
+			scaledPixels = null;
+			columnMap = null;
+			rowPixels = null;
+			rowSums = null;
+			rowCounts = null;
+		}
+
+		private BufferedImage toRgbImage(Image image)
+		{
+			if (image instanceof BufferedImage && ((BufferedImage) image).getType() == BufferedImage.TYPE_INT_RGB)
+			{
+				return (BufferedImage) image;
+			}
+
+			int width = image.getWidth(null);
+			int height = image.getHeight(null);
+			if (frameBuffer == null || frameBuffer.getWidth() != width || frameBuffer.getHeight() != height)
+			{
+				frameBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			}
+			Graphics2D g = frameBuffer.createGraphics();
+			g.drawImage(image, 0, 0, null);
+			g.dispose();
+			return frameBuffer;
+		}
+
+		/**
+		 * Box-filter downscale: every source pixel is added to the destination pixel it
+		 * falls in, and each destination pixel is the average of its box.
+		 */
+		private BufferedImage downscale(BufferedImage src, Rectangle area, int dstWidth, int dstHeight)
+		{
+			int srcWidth = area.width;
+			int srcHeight = area.height;
+			prepareScaleBuffers(srcWidth, dstWidth, dstHeight);
+
+			// Read INT_RGB rasters in place; anything else goes through getRGB a row at a time
+			int[] srcData = null;
+			int srcStride = 0;
+			if (src.getType() == BufferedImage.TYPE_INT_RGB
+				&& src.getRaster().getParent() == null
+				&& src.getSampleModel() instanceof SinglePixelPackedSampleModel)
+			{
+				srcData = ((DataBufferInt) src.getRaster().getDataBuffer()).getData();
+				srcStride = ((SinglePixelPackedSampleModel) src.getSampleModel()).getScanlineStride();
+			}
+
+			int dstY = 0;
+			for (int y = 0; y < srcHeight; y++)
+			{
+				int targetY = (int) ((long) y * dstHeight / srcHeight);
+				if (targetY != dstY)
+				{
+					flushRow(dstY, dstWidth);
+					dstY = targetY;
+				}
+
+				int[] row;
+				int offset;
+				if (srcData != null)
+				{
+					row = srcData;
+					offset = (area.y + y) * srcStride + area.x;
+				}
+				else
+				{
+					src.getRGB(area.x, area.y + y, srcWidth, 1, rowPixels, 0, srcWidth);
+					row = rowPixels;
+					offset = 0;
+				}
+
+				for (int x = 0; x < srcWidth; x++)
+				{
+					int rgb = row[offset + x];
+					int column = columnMap[x];
+					int sum = column * 3;
+					rowSums[sum] += (rgb >> 16) & 0xFF;
+					rowSums[sum + 1] += (rgb >> 8) & 0xFF;
+					rowSums[sum + 2] += rgb & 0xFF;
+					rowCounts[column]++;
+				}
+			}
+			flushRow(dstY, dstWidth);
+			return scaled;
+		}
+
+		private void prepareScaleBuffers(int srcWidth, int dstWidth, int dstHeight)
+		{
+			if (scaled == null || scaled.getWidth() != dstWidth || scaled.getHeight() != dstHeight)
+			{
+				scaled = new BufferedImage(dstWidth, dstHeight, BufferedImage.TYPE_INT_RGB);
+				scaledPixels = ((DataBufferInt) scaled.getRaster().getDataBuffer()).getData();
+				rowSums = new long[dstWidth * 3];
+				rowCounts = new int[dstWidth];
+				columnMap = null;
+			}
+			if (columnMap == null || columnMap.length != srcWidth)
+			{
+				columnMap = new int[srcWidth];
+				for (int x = 0; x < srcWidth; x++)
+				{
+					columnMap[x] = (int) ((long) x * dstWidth / srcWidth);
+				}
+				rowPixels = new int[srcWidth];
+			}
+		}
+
+		private void flushRow(int y, int width)
+		{
+			int base = y * width;
+			for (int x = 0; x < width; x++)
+			{
+				int count = rowCounts[x];
+				int sum = x * 3;
+				if (count > 0)
+				{
+					int r = (int) (rowSums[sum] / count);
+					int g = (int) (rowSums[sum + 1] / count);
+					int b = (int) (rowSums[sum + 2] / count);
+					scaledPixels[base + x] = r << 16 | g << 8 | b;
+				}
+				rowSums[sum] = 0;
+				rowSums[sum + 1] = 0;
+				rowSums[sum + 2] = 0;
+				rowCounts[x] = 0;
+			}
+		}
+
+		/**
+		 * JPEG-encode {@code image} at {@code quality}, streaming the result as Base64 into {@code target}.
+		 */
+		private void compress(BufferedImage image, float quality, ByteArrayOutputStream target) throws Exception
+		{
+			if (writer == null)
+			{
+				writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+				writeParam = writer.getDefaultWriteParam();
+				writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			}
+			writeParam.setCompressionQuality(quality);
+
+			target.reset();
+			// Closing the Base64 stream writes the final padding; closing a ByteArrayOutputStream is a no-op
+			try (OutputStream base64 = Base64.getEncoder().wrap(target);
+				ImageOutputStream ios = new MemoryCacheImageOutputStream(base64))
+			{
+				writer.setOutput(ios);
+				writer.write(null, new IIOImage(image, null, null), writeParam);
+			}
+			finally
+			{
+				writer.setOutput(null);
+			}
+		}
 	}
 }
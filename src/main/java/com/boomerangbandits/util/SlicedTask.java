@@ -0,0 +1,49 @@
+package com.boomerangbandits.util;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A long client-thread job split into small steps, run by {@link ClientThreadTaskRunner}.
+ * <p>
+ * {@link #step()} does one bounded unit of work (e.g. one roster member) and is called
+ * repeatedly until it reports completion, possibly across several client frames. Any
+ * state the job needs between steps lives in the task itself.
+ */
+public interface SlicedTask<T> {
+
+    /**
+     * Do one unit of work.
+     *
+     * @return true once the task has finished
+     */
+    boolean step();
+
+    /**
+     * The result, read once after {@link #step()} returned true.
+     */
+    T result();
+
+    /**
+     * A task that applies {@code action} to each item in order, then yields {@code result}.
+     */
+    static <E, T> SlicedTask<T> forEach(List<E> items, Consumer<? super E> action, Supplier<T> result) {
+        return new SlicedTask<T>() {
+            private int index;
+
+            @Override
+            public boolean step() {
+                if (index < items.size()) {
+                    action.accept(items.get(index++));
+                }
+                return index >= items.size();
+            }
+
+            @Override
+            public T result() {
+                return result.get();
+            }
+        };
+    }
+}
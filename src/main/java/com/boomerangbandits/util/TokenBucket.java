@@ -0,0 +1,94 @@
+package com.boomerangbandits.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket rate limiter.
+ * <p>
+ * Holds up to {@code capacity} tokens, refilled at one token per
+ * {@code refillPeriod / capacity}. Instead of a token count plus a refill timestamp
+ * the bucket keeps a single value: the time at which it will be full again. Taking a
+ * token pushes that time one refill interval forward, and a token is available while
+ * it stays within {@code capacity} intervals of now. One compare-and-set per
+ * acquisition, no lock and no per-request history.
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * private final TokenBucket limiter = new TokenBucket(3, 1, TimeUnit.MINUTES); // 3 per minute
+ *
+ * if (!limiter.tryAcquire()) {
+ *     return; // Over the limit
+ * }
+ * </pre>
+ */
+public class TokenBucket {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final LongSupplier clock;
+    // Time (clock nanos) at which the bucket is full again; at or before now means full
+    private final AtomicLong fullAt;
+
+    /**
+     * @param capacity     maximum burst; the bucket starts full
+     * @param refillPeriod time to refill from empty to {@code capacity}
+     * @throws IllegalArgumentException if capacity or the period is not positive
+     */
+    public TokenBucket(int capacity, long refillPeriod, TimeUnit unit) {
+        this(capacity, refillPeriod, unit, System::nanoTime);
+    }
+
+    TokenBucket(int capacity, long refillPeriod, TimeUnit unit, LongSupplier clock) {
+        if (capacity <= 0 || refillPeriod <= 0) {
+            throw new IllegalArgumentException("Capacity and refill period must be positive");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = Math.max(1, unit.toNanos(refillPeriod) / capacity);
+        this.clock = clock;
+        this.fullAt = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Take one token if one is available.
+     *
+     * @return true if the call may proceed, false if the bucket is empty
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > capacity * intervalNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Time until the next token becomes available; 0 if one is available now.
+     * Does not take a token.
+     */
+    public long getNanosUntilAvailable() {
+        long now = clock.getAsLong();
+        long wait = fullAt.get() + intervalNanos - now - capacity * intervalNanos;
+        return Math.max(0, wait);
+    }
+
+    /**
+     * Tokens available right now (rounded down).
+     */
+    public int getAvailableTokens() {
+        long now = clock.getAsLong();
+        long backlog = Math.max(0, fullAt.get() - now);
+        return (int) (capacity - (backlog + intervalNanos - 1) / intervalNanos);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,120 @@
+package com.boomerangbandits.services;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for AttendanceJournal.
+ */
+public class AttendanceJournalTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testRecover_NoJournal() throws Exception {
+        AttendanceJournal journal = new AttendanceJournal(tmp.newFolder());
+        assertNull("Nothing to recover without a journal file", journal.recover());
+    }
+
+    @Test
+    public void testRecover_UnfinishedSession() throws Exception {
+        File dir = tmp.newFolder();
+
+        long startedAt = System.currentTimeMillis();
+        AttendanceJournal writer = new AttendanceJournal(dir);
+        writer.begin(startedAt);
+        int alice = writer.registerMember("Alice");
+        int bob = writer.registerMember("Bob Smith");
+        writer.append(alice, 0, AttendanceJournal.JOIN);
+        writer.append(bob, 5, AttendanceJournal.JOIN);
+        writer.append(alice, 20, AttendanceJournal.LEAVE);
+        writer.heartbeat(42);
+        writer.close(); // simulate the client going away without finish()
+
+        AttendanceJournal reader = new AttendanceJournal(dir);
+        AttendanceJournal.RecoveredSession session = reader.recover();
+        assertNotNull("Unfinished session should be recovered", session);
+        assertEquals(startedAt, session.startedAtMillis);
+        assertEquals(42, session.lastElapsedTick);
+        assertArrayEquals(new String[]{"Alice", "Bob Smith"}, session.memberNames);
+        assertEquals(3, session.recordCount);
+        assertArrayEquals(new int[]{
+                alice, 0, AttendanceJournal.JOIN,
+                bob, 5, AttendanceJournal.JOIN,
+                alice, 20, AttendanceJournal.LEAVE
+        }, session.records);
+        reader.close();
+    }
+
+    @Test
+    public void testRecover_FinishedSessionIsIgnored() throws Exception {
+        File dir = tmp.newFolder();
+
+        AttendanceJournal writer = new AttendanceJournal(dir);
+        writer.begin(System.currentTimeMillis());
+        writer.append(writer.registerMember("Alice"), 0, AttendanceJournal.JOIN);
+        writer.finish();
+        writer.close();
+
+        assertNull("Finished sessions are not offered", new AttendanceJournal(dir).recover());
+    }
+
+    @Test
+    public void testRecover_AppendsContinueAfterRecovery() throws Exception {
+        File dir = tmp.newFolder();
+
+        AttendanceJournal first = new AttendanceJournal(dir);
+        first.begin(System.currentTimeMillis());
+        int alice = first.registerMember("Alice");
+        first.append(alice, 0, AttendanceJournal.JOIN);
+        first.close();
+
+        AttendanceJournal second = new AttendanceJournal(dir);
+        assertNotNull(second.recover());
+        second.append(alice, 10, AttendanceJournal.LEAVE);
+        second.close();
+
+        AttendanceJournal.RecoveredSession session = new AttendanceJournal(dir).recover();
+        assertNotNull(session);
+        assertEquals("Recovered journal keeps appending", 2, session.recordCount);
+    }
+
+    @Test
+    public void testRecover_StaleSessionIsDropped() throws Exception {
+        File dir = tmp.newFolder();
+
+        long startedAt = 1_000_000L;
+        AttendanceJournal writer = new AttendanceJournal(dir);
+        writer.begin(startedAt);
+        writer.append(writer.registerMember("Alice"), 0, AttendanceJournal.JOIN);
+        writer.heartbeat(100); // last active 60s after the start
+        writer.close();
+
+        long lastActive = startedAt + 60_000L;
+        AttendanceJournal reader = new AttendanceJournal(dir);
+        assertNotNull("Within the window the session is offered",
+                reader.recover(lastActive + AttendanceJournal.MAX_RECOVERY_AGE_MS));
+        reader.close();
+
+        reader = new AttendanceJournal(dir);
+        assertNull("Past the window the session is dropped",
+                reader.recover(lastActive + AttendanceJournal.MAX_RECOVERY_AGE_MS + 1));
+        reader.close();
+
+        assertNull("A dropped session is not offered again",
+                new AttendanceJournal(dir).recover(lastActive));
+    }
+
+    @Test
+    public void testRegisterMember_WithoutBeginIsIgnored() throws Exception {
+        AttendanceJournal journal = new AttendanceJournal(tmp.newFolder());
+        assertEquals(-1, journal.registerMember("Alice"));
+        journal.append(-1, 0, AttendanceJournal.JOIN); // must not throw
+    }
+}
@@ -0,0 +1,113 @@
+package com.boomerangbandits.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for BountyCompletionLedger.
+ */
+public class BountyCompletionLedgerTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private ScheduledExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testTryRecord_DuplicateWithinBucket() throws Exception {
+        BountyCompletionLedger ledger = new BountyCompletionLedger(tmp.newFolder(), executor);
+        assertTrue(ledger.tryRecord("b1", 4151, 99L, NOW));
+        assertFalse("Second report of the same drop is dropped", ledger.tryRecord("b1", 4151, 99L, NOW + 2_000));
+    }
+
+    @Test
+    public void testTryRecord_DuplicateAcrossBucketBoundary() throws Exception {
+        BountyCompletionLedger ledger = new BountyCompletionLedger(tmp.newFolder(), executor);
+        long endOfBucket = (NOW / BountyCompletionLedger.BUCKET_MS + 1) * BountyCompletionLedger.BUCKET_MS - 1;
+        assertTrue(ledger.tryRecord("b1", 4151, 99L, endOfBucket));
+        assertFalse(ledger.tryRecord("b1", 4151, 99L, endOfBucket + 2));
+    }
+
+    @Test
+    public void testTryRecord_DistinctKeys() throws Exception {
+        BountyCompletionLedger ledger = new BountyCompletionLedger(tmp.newFolder(), executor);
+        assertTrue(ledger.tryRecord("b1", 4151, 99L, NOW));
+        assertTrue("Different item", ledger.tryRecord("b1", 11840, 99L, NOW));
+        assertTrue("Different account", ledger.tryRecord("b1", 4151, 100L, NOW));
+        assertTrue("Different bounty", ledger.tryRecord("b2", 4151, 99L, NOW));
+        assertTrue("Later drop", ledger.tryRecord("b1", 4151, 99L, NOW + 3 * BountyCompletionLedger.BUCKET_MS));
+    }
+
+    @Test
+    public void testTryRecord_SurvivesRestart() throws Exception {
+        File dir = tmp.newFolder();
+        assertTrue(new BountyCompletionLedger(dir, executor).tryRecord("b1", 4151, 99L, NOW));
+        drainExecutor();
+
+        executor = Executors.newSingleThreadScheduledExecutor();
+        BountyCompletionLedger reloaded = new BountyCompletionLedger(dir, executor);
+        assertFalse("Recorded completion is remembered after restart",
+                reloaded.tryRecord("b1", 4151, 99L, NOW + 5_000));
+    }
+
+    @Test
+    public void testTryRecord_ExpiredEntriesPruned() throws Exception {
+        File dir = tmp.newFolder();
+        assertTrue(new BountyCompletionLedger(dir, executor).tryRecord("b1", 4151, 99L, NOW));
+        drainExecutor();
+
+        long later = NOW + BountyCompletionLedger.RETENTION_MS + BountyCompletionLedger.BUCKET_MS * 2;
+        executor = Executors.newSingleThreadScheduledExecutor();
+        BountyCompletionLedger reloaded = new BountyCompletionLedger(dir, executor);
+        assertTrue(reloaded.tryRecord("b2", 1, 1L, later));
+        drainExecutor();
+
+        assertEquals("Only the fresh entry is kept", 1,
+                Files.readAllLines(new File(dir, "bounty-ledger.txt").toPath()).size());
+    }
+
+    @Test
+    public void testRelease_AllowsResubmitAfterFailure() throws Exception {
+        File dir = tmp.newFolder();
+        BountyCompletionLedger ledger = new BountyCompletionLedger(dir, executor);
+        assertTrue(ledger.tryRecord("b1", 4151, 99L, NOW));
+        ledger.release("b1", 4151, 99L, NOW + BountyCompletionLedger.BUCKET_MS);
+        assertTrue("Released completion can be recorded again",
+                ledger.tryRecord("b1", 4151, 99L, NOW + BountyCompletionLedger.BUCKET_MS + 1_000));
+        ledger.release("b1", 4151, 99L, NOW + BountyCompletionLedger.BUCKET_MS + 2_000);
+        drainExecutor();
+
+        executor = Executors.newSingleThreadScheduledExecutor();
+        BountyCompletionLedger reloaded = new BountyCompletionLedger(dir, executor);
+        assertTrue("Released completion is not remembered after restart",
+                reloaded.tryRecord("b1", 4151, 99L, NOW + BountyCompletionLedger.BUCKET_MS + 3_000));
+    }
+
+    private void drainExecutor() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
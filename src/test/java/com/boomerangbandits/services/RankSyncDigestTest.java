@@ -0,0 +1,90 @@
+package com.boomerangbandits.services;
+
+import com.google.gson.Gson;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for RankSyncDigest.
+ */
+public class RankSyncDigestTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static Map<String, String> roster(String... nameRankPairs) {
+        Map<String, String> roster = new LinkedHashMap<>();
+        for (int i = 0; i < nameRankPairs.length; i += 2) {
+            roster.put(nameRankPairs[i], nameRankPairs[i + 1]);
+        }
+        return roster;
+    }
+
+    @Test
+    public void testDiff_NoBaseMeansFullSync() throws Exception {
+        RankSyncDigest digest = new RankSyncDigest(tmp.newFolder(), new Gson());
+        assertNull(digest.diff(roster("alice", "owner")));
+    }
+
+    @Test
+    public void testDiff_UnchangedRosterIsEmpty() throws Exception {
+        RankSyncDigest digest = new RankSyncDigest(tmp.newFolder(), new Gson());
+        Map<String, String> roster = roster("alice", "owner", "bob", "recruit");
+        digest.commit(roster, 7L);
+
+        RankSyncDigest.Delta delta = digest.diff(roster);
+        assertNotNull(delta);
+        assertTrue(delta.isEmpty());
+        assertEquals(7L, delta.getBaseVersion());
+    }
+
+    @Test
+    public void testDiff_AddsChangesAndRemovals() throws Exception {
+        RankSyncDigest digest = new RankSyncDigest(tmp.newFolder(), new Gson());
+        digest.commit(roster("alice", "owner", "bob", "recruit", "carol", "general"), 3L);
+
+        RankSyncDigest.Delta delta = digest.diff(roster("alice", "owner", "bob", "corporal", "dave", "recruit"));
+        assertNotNull(delta);
+        assertEquals(Arrays.asList("bob", "dave"), delta.getChanged());
+        assertEquals(Collections.singletonList("carol"), delta.getRemoved());
+        assertEquals(3, delta.size());
+    }
+
+    @Test
+    public void testCommit_PersistsAcrossInstances() throws Exception {
+        File dir = tmp.newFolder();
+        new RankSyncDigest(dir, new Gson()).commit(roster("alice", "owner"), 12L);
+
+        RankSyncDigest.Delta delta = new RankSyncDigest(dir, new Gson()).diff(roster("alice", "owner"));
+        assertNotNull("Digest survives a restart", delta);
+        assertTrue(delta.isEmpty());
+        assertEquals(12L, delta.getBaseVersion());
+    }
+
+    @Test
+    public void testInvalidate_ForcesFullSync() throws Exception {
+        File dir = tmp.newFolder();
+        RankSyncDigest digest = new RankSyncDigest(dir, new Gson());
+        digest.commit(roster("alice", "owner"), 5L);
+        digest.invalidate();
+
+        assertNull(digest.diff(roster("alice", "owner")));
+        assertNull(new RankSyncDigest(dir, new Gson()).diff(roster("alice", "owner")));
+    }
+
+    @Test
+    public void testCommit_WithoutVersionForcesFullSync() throws Exception {
+        RankSyncDigest digest = new RankSyncDigest(tmp.newFolder(), new Gson());
+        digest.commit(roster("alice", "owner"), null);
+        assertNull(digest.diff(roster("alice", "owner")));
+    }
+}
@@ -0,0 +1,75 @@
+package com.boomerangbandits.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for IntObjectMap.
+ */
+public class IntObjectMapTest {
+
+    @Test
+    public void testGet_Empty() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertNull(map.get(42));
+        assertFalse(map.containsKey(42));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testPut_ReplacesValue() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertNull(map.put(1, "a"));
+        assertEquals("a", map.put(1, "b"));
+        assertEquals("b", map.get(1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testPut_ZeroAndNegativeKeys() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(0, "zero");
+        map.put(-1, "minus one");
+        assertEquals("zero", map.get(0));
+        assertEquals("minus one", map.get(-1));
+    }
+
+    @Test
+    public void testPutIfAbsent_KeepsFirst() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertNull(map.putIfAbsent(7, "first"));
+        assertEquals("first", map.putIfAbsent(7, "second"));
+        assertEquals("first", map.get(7));
+    }
+
+    @Test
+    public void testGrow_KeepsAllEntries() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(2);
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i * 31, i);
+        }
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Integer.valueOf(i), map.get(i * 31));
+        }
+        assertNull(map.get(1));
+    }
+
+    @Test
+    public void testClear() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+        map.put(1, "c");
+        assertEquals("c", map.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPut_NullValue() {
+        new IntObjectMap<String>().put(1, null);
+    }
+}
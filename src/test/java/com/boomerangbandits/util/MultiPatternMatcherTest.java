@@ -0,0 +1,54 @@
+package com.boomerangbandits.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for MultiPatternMatcher.
+ */
+public class MultiPatternMatcherTest {
+
+    @Test
+    public void testMatch_NoPatternFound() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher("coffer", "followed");
+        assertEquals(0, matcher.match("Welcome to RuneScape."));
+        assertEquals(0, matcher.match(""));
+    }
+
+    @Test
+    public void testMatch_ReportsEveryPattern() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(" has deposited ", " coins into the coffer.", "followed");
+        int found = matcher.match("Zezima has deposited 1,000 coins into the coffer.");
+        assertEquals(0b011, found);
+    }
+
+    @Test
+    public void testMatch_CaseInsensitive() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher("Funny Feeling");
+        assertEquals(1, matcher.match("You have a FUNNY feeling like you're being followed."));
+    }
+
+    @Test
+    public void testMatch_OverlappingPatterns() {
+        // "she" ends inside "ushers" where "he" and "hers" also end — classic fail-link case
+        MultiPatternMatcher matcher = new MultiPatternMatcher("he", "she", "his", "hers");
+        assertEquals(0b1011, matcher.match("ushers"));
+    }
+
+    @Test
+    public void testMatch_NonAsciiResetsState() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher("ab");
+        assertEquals(0, matcher.match("aéb"));
+        assertEquals(1, matcher.match("éab"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_TooManyPatterns() {
+        String[] patterns = new String[MultiPatternMatcher.MAX_PATTERNS + 1];
+        for (int i = 0; i < patterns.length; i++) {
+            patterns[i] = "p" + i;
+        }
+        new MultiPatternMatcher(patterns);
+    }
+}
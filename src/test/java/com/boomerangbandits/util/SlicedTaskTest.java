@@ -0,0 +1,35 @@
+package com.boomerangbandits.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for SlicedTask.
+ */
+public class SlicedTaskTest {
+
+    @Test
+    public void testForEach_OneItemPerStep() {
+        List<String> seen = new ArrayList<>();
+        SlicedTask<List<String>> task = SlicedTask.forEach(Arrays.asList("a", "b", "c"), seen::add, () -> seen);
+
+        assertFalse(task.step());
+        assertEquals(Collections.singletonList("a"), seen);
+        assertFalse(task.step());
+        assertTrue(task.step());
+        assertEquals(Arrays.asList("a", "b", "c"), task.result());
+    }
+
+    @Test
+    public void testForEach_EmptyListFinishesImmediately() {
+        SlicedTask<String> task = SlicedTask.forEach(Collections.<String>emptyList(), s -> fail("No items to visit"), () -> "done");
+        assertTrue(task.step());
+        assertEquals("done", task.result());
+    }
+}
@@ -0,0 +1,90 @@
+package com.boomerangbandits.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for TokenBucket.
+ */
+public class TokenBucketTest {
+
+    private long now;
+    private TokenBucket bucket;
+
+    @Before
+    public void setUp() {
+        now = 1_000_000_000L;
+        bucket = new TokenBucket(3, 60, TimeUnit.SECONDS, () -> now); // 3 per minute
+    }
+
+    private void advanceSeconds(long seconds) {
+        now += TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    @Test
+    public void testTryAcquire_AllowsBurstUpToCapacity() {
+        assertEquals(3, bucket.getAvailableTokens());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+        assertEquals(0, bucket.getAvailableTokens());
+    }
+
+    @Test
+    public void testTryAcquire_RefillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire();
+        }
+        assertEquals(TimeUnit.SECONDS.toNanos(20), bucket.getNanosUntilAvailable());
+
+        advanceSeconds(19);
+        assertFalse(bucket.tryAcquire());
+
+        advanceSeconds(1);
+        assertEquals(0, bucket.getNanosUntilAvailable());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    public void testTryAcquire_IdleTimeDoesNotExceedCapacity() {
+        advanceSeconds(3600);
+        assertEquals(3, bucket.getAvailableTokens());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bucket.tryAcquire());
+        }
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_ZeroCapacity() {
+        new TokenBucket(0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testTryAcquire_ConcurrentCallersNeverExceedCapacity() throws Exception {
+        TokenBucket shared = new TokenBucket(100, 1, TimeUnit.HOURS);
+        AtomicInteger granted = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (shared.tryAcquire()) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100, granted.get());
+    }
+}